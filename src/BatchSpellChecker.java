@@ -0,0 +1,215 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Non-interactive spell checker for unattended runs. Every misspelling is resolved by a
+ * fixed policy instead of a console prompt, and nothing is read from or written to the console.
+ *
+ * Usage: java BatchSpellChecker <dictionary> <input> [accept|top|report] [--dedupe] [--stats] [--metrics]
+ *            [--frequencies FILE [--frequency-weight W]]
+ * The corrected text goes to the same "_chk.txt" file the interactive checker would write;
+ * --dedupe resolves each distinct misspelling once, --stats prints word counts and
+ * throughput to standard error when done, and --metrics adds per-stage latency percentiles.
+ * --frequencies ranks suggestions with a "word count" file, breaking similarity ties by
+ * default or blending frequency in with a weight of 0.5 or more.
+ */
+public class BatchSpellChecker {
+
+    /** What to do with each misspelled word. */
+    public enum Policy {
+        /** Keep the word as written. */
+        ACCEPT,
+        /** Replace it with the best suggestion, keeping it if there is none. */
+        TOP_SUGGESTION,
+        /**
+         * Keep the word and list its word position and suggestions in a "_report.txt" file, one
+         * line per occurrence, or per distinct word at its first position when deduplicating.
+         */
+        REPORT
+    }
+
+    private final Dictionary dictionary;
+    private final SuggestionCache suggestionCache;
+    private final Policy policy;
+    // Resolve each distinct misspelling once, with all suggestions computed up front in parallel
+    private final boolean deduplicate;
+    private SpellCheckMetrics metrics;
+
+    public BatchSpellChecker(Dictionary dictionary, Policy policy) {
+        this(dictionary, new SuggestionCache(new WordRecommender(dictionary)), policy, false);
+    }
+
+    public BatchSpellChecker(Dictionary dictionary, SuggestionCache suggestionCache, Policy policy) {
+        this(dictionary, suggestionCache, policy, false);
+    }
+
+    public BatchSpellChecker(Dictionary dictionary, SuggestionCache suggestionCache, Policy policy,
+                             boolean deduplicate) {
+        this.dictionary = dictionary;
+        this.suggestionCache = suggestionCache;
+        this.policy = policy;
+        this.deduplicate = deduplicate;
+    }
+
+    /** Records tokenize and lookup timings of later checkFile calls into metrics; null turns this off. */
+    public void setMetrics(SpellCheckMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** The report name for an input file: "notes.txt" becomes "notes_report.txt". */
+    static String reportFileNameFor(String inputFileName) {
+        String output = SpellChecker.outputFileNameFor(inputFileName);
+        return output.substring(0, output.length() - "_chk.txt".length()) + "_report.txt";
+    }
+
+    /**
+     * Spell checks inputFileName into outputFileName through the streaming pipeline, keeping
+     * the original whitespace. Returns the run's word counts and throughput.
+     */
+    public SpellCheckPipeline.Stats checkFile(String inputFileName, String outputFileName) throws IOException {
+        if (deduplicate) {
+            return checkFileDeduplicated(inputFileName, outputFileName);
+        }
+        if (policy != Policy.REPORT) {
+            return SpellCheckPipeline.runWithPositions(inputFileName, outputFileName, dictionary,
+                    (word, position) -> resolve(word, position, null), metrics);
+        }
+        try (PrintWriter report = new PrintWriter(new BufferedWriter(new FileWriter(reportFileNameFor(inputFileName))))) {
+            return SpellCheckPipeline.runWithPositions(inputFileName, outputFileName, dictionary,
+                    (word, position) -> resolve(word, position, report), metrics);
+        }
+    }
+
+    /**
+     * Two-pass variant of checkFile: finds the distinct misspelled words, computes their
+     * suggestions in parallel, applies the policy once per word (the report gets one line per
+     * distinct word), then rewrites the file with those decisions.
+     */
+    private SpellCheckPipeline.Stats checkFileDeduplicated(String inputFileName, String outputFileName)
+            throws IOException {
+        long start = System.nanoTime();
+        HashMap<String, Long> firstPositions = new HashMap<>();
+        LinkedHashMap<String, Integer> misspellings = SpellCheckPipeline.collectMisspellings(inputFileName, dictionary,
+                firstPositions);
+        if (policy != Policy.ACCEPT) {
+            suggestionCache.getWordSuggestionsForAll(misspellings.keySet(), SpellChecker.SUGGESTION_TOLERANCE,
+                    SpellChecker.SUGGESTION_COMMON_PERCENT, SpellChecker.SUGGESTION_COUNT, true);
+        }
+
+        HashMap<String, String> decisions = new HashMap<>();
+        PrintWriter report = policy == Policy.REPORT
+                ? new PrintWriter(new BufferedWriter(new FileWriter(reportFileNameFor(inputFileName)))) : null;
+        try {
+            for (String word : misspellings.keySet()) {
+                decisions.put(word, resolve(word, firstPositions.get(word), report));
+            }
+        } finally {
+            if (report != null) report.close();
+        }
+
+        SpellCheckPipeline.Stats rewrite = SpellCheckPipeline.run(inputFileName, outputFileName, dictionary, decisions::get,
+                metrics);
+        return new SpellCheckPipeline.Stats(rewrite.bytes(), rewrite.words(), rewrite.misspellings(),
+                System.nanoTime() - start);
+    }
+
+    /** Applies the policy to one misspelled word at the given word position. */
+    private String resolve(String misspelledWord, long position, PrintWriter report) {
+        if (policy == Policy.ACCEPT) {
+            return misspelledWord;
+        }
+
+        ArrayList<String> suggestions = suggestionCache.getWordSuggestions(misspelledWord,
+                SpellChecker.SUGGESTION_TOLERANCE, SpellChecker.SUGGESTION_COMMON_PERCENT, SpellChecker.SUGGESTION_COUNT);
+        if (policy == Policy.TOP_SUGGESTION) {
+            return suggestions.isEmpty() ? misspelledWord : suggestions.get(0);
+        }
+
+        // REPORT: position and misspelled word, then its suggestions, tab separated
+        report.print(position + "\t" + misspelledWord);
+        for (String suggestion : suggestions) {
+            report.print("\t" + suggestion);
+        }
+        report.println();
+        return misspelledWord;
+    }
+
+    static Policy parsePolicy(String name) {
+        switch (name.toLowerCase()) {
+            case "accept":
+                return Policy.ACCEPT;
+            case "top":
+                return Policy.TOP_SUGGESTION;
+            case "report":
+                return Policy.REPORT;
+            default:
+                throw new IllegalArgumentException("Unknown policy '" + name + "', expected accept, top or report");
+        }
+    }
+
+    public static void main(String[] args) {
+        ArrayList<String> positional = new ArrayList<>();
+        boolean printStats = false;
+        boolean deduplicate = false;
+        SpellCheckMetrics metrics = null;
+        String frequencyFile = null;
+        double frequencyWeight = WordRecommender.TIE_BREAK_WEIGHT;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--frequencies") && i + 1 < args.length) {
+                frequencyFile = args[++i];
+            } else if (arg.equals("--frequency-weight") && i + 1 < args.length) {
+                try {
+                    frequencyWeight = Double.parseDouble(args[++i]);
+                } catch (NumberFormatException e) {
+                    positional.clear();
+                    break;
+                }
+            } else if (arg.equals("--stats")) {
+                printStats = true;
+            } else if (arg.equals("--metrics")) {
+                metrics = new SpellCheckMetrics();
+            } else if (arg.equals("--dedupe")) {
+                deduplicate = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() < 2 || positional.size() > 3) {
+            System.err.println("Usage: java BatchSpellChecker <dictionary> <input> [accept|top|report] [--dedupe] [--stats]"
+                    + " [--metrics] [--frequencies FILE [--frequency-weight W]]");
+            System.exit(2);
+        }
+
+        try {
+            Policy policy = positional.size() == 3 ? parsePolicy(positional.get(2)) : Policy.TOP_SUGGESTION;
+            long loadStart = System.nanoTime();
+            Dictionary dictionary = DictionarySnapshot.loadWithSnapshot(positional.get(0));
+            if (metrics != null) {
+                metrics.recordLatency(SpellCheckMetrics.Stage.LOAD, System.nanoTime() - loadStart);
+            }
+            String input = positional.get(1);
+            WordFrequencies frequencies = frequencyFile == null ? null : WordFrequencies.load(frequencyFile, dictionary);
+            WordRecommender recommender = new WordRecommender(dictionary).withMetrics(metrics)
+                    .withFrequencies(frequencies, frequencyWeight);
+            BatchSpellChecker checker = new BatchSpellChecker(dictionary, new SuggestionCache(recommender), policy,
+                    deduplicate);
+            checker.setMetrics(metrics);
+            SpellCheckPipeline.Stats stats = checker.checkFile(input, SpellChecker.outputFileNameFor(input));
+            if (printStats) {
+                System.err.println(stats);
+            }
+            if (metrics != null) {
+                metrics.report(System.err);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
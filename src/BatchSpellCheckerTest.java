@@ -0,0 +1,201 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Scanner;
+
+public class BatchSpellCheckerTest {
+
+    public static void main(String[] args) {
+        BatchSpellCheckerTest tester = new BatchSpellCheckerTest();
+        tester.runTests();
+    }
+
+    private void runTests() {
+        System.out.println("Starting BatchSpellChecker Tests...\n");
+
+        testAcceptPolicy();
+        testTopSuggestionPolicy();
+        testReportPolicy();
+        testWhitespacePreserved();
+        testChunkBoundaries();
+        testDeduplicatedReport();
+        testMetrics();
+
+        System.out.println("\nAll tests completed!");
+    }
+
+    private Dictionary testDictionary() throws IOException {
+        createTestFile("batch_dict.txt", "the\ncat\nsat\non\nmat\n");
+        Dictionary dictionary = Dictionary.load("batch_dict.txt");
+        cleanup("batch_dict.txt");
+        return dictionary;
+    }
+
+    private void testAcceptPolicy() {
+        System.out.println("Test 1: accept policy keeps misspellings");
+        try {
+            createTestFile("batch_input.txt", "The cat satt on the mat");
+            BatchSpellChecker checker = new BatchSpellChecker(testDictionary(), BatchSpellChecker.Policy.ACCEPT);
+            SpellCheckPipeline.Stats stats = checker.checkFile("batch_input.txt", "batch_output.txt");
+
+            String output = readFile("batch_output.txt");
+            check(stats.misspellings() == 1 && output.equals("the cat satt on the mat"), output);
+            cleanup("batch_input.txt", "batch_output.txt");
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    private void testTopSuggestionPolicy() {
+        System.out.println("\nTest 2: top policy takes the best suggestion");
+        try {
+            createTestFile("batch_input.txt", "the cat satt on the mat");
+            BatchSpellChecker checker = new BatchSpellChecker(testDictionary(), BatchSpellChecker.Policy.TOP_SUGGESTION);
+            checker.checkFile("batch_input.txt", "batch_output.txt");
+
+            String output = readFile("batch_output.txt");
+            check(output.equals("the cat sat on the mat"), output);
+            cleanup("batch_input.txt", "batch_output.txt");
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    private void testReportPolicy() {
+        System.out.println("\nTest 3: report policy lists misspellings with suggestions");
+        try {
+            createTestFile("batch_input.txt", "the cat satt on teh mat");
+            BatchSpellChecker checker = new BatchSpellChecker(testDictionary(), BatchSpellChecker.Policy.REPORT);
+            checker.checkFile("batch_input.txt", "batch_output.txt");
+
+            String output = readFile("batch_output.txt");
+            String report = readFile(BatchSpellChecker.reportFileNameFor("batch_input.txt"));
+            check(output.equals("the cat satt on teh mat") && report.startsWith("2\tsatt\tsat") && report.contains("4\tteh\tthe"),
+                    report);
+            cleanup("batch_input.txt", "batch_output.txt", BatchSpellChecker.reportFileNameFor("batch_input.txt"));
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    private void testWhitespacePreserved() {
+        System.out.println("\nTest 4: original spacing and line breaks are kept");
+        try {
+            createTestFile("batch_input.txt", "  The cat\tsatt\n\non the  mat\n");
+            BatchSpellChecker checker = new BatchSpellChecker(testDictionary(), BatchSpellChecker.Policy.TOP_SUGGESTION);
+            checker.checkFile("batch_input.txt", "batch_output.txt");
+
+            String output = new String(Files.readAllBytes(Paths.get("batch_output.txt")));
+            check(output.equals("  the cat\tsat\n\non the  mat\n"), output);
+            cleanup("batch_input.txt", "batch_output.txt");
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    private void testChunkBoundaries() {
+        System.out.println("\nTest 5: words split across read chunks are checked whole");
+        try {
+            // 13-character lines do not divide the buffer size, so some words straddle chunk boundaries
+            StringBuilder input = new StringBuilder();
+            StringBuilder expected = new StringBuilder();
+            while (input.length() < 3 * SpellCheckPipeline.BUFFER_SIZE) {
+                input.append("the satt mat\n");
+                expected.append("the sat mat\n");
+            }
+
+            StringWriter output = new StringWriter();
+            long[] counts = SpellCheckPipeline.run(new StringReader(input.toString()), output, testDictionary(),
+                    word -> "sat");
+            check(output.toString().equals(expected.toString()) && counts[1] * 3 == counts[0],
+                    counts[0] + " words, " + counts[1] + " misspelled");
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    private void testDeduplicatedReport() {
+        System.out.println("\nTest 6: deduplicating mode reports each distinct misspelling once");
+        try {
+            createTestFile("batch_input.txt", "teh cat satt\nteh mat satt teh\n");
+            Dictionary dictionary = testDictionary();
+            BatchSpellChecker checker = new BatchSpellChecker(dictionary,
+                    new SuggestionCache(new WordRecommender(dictionary)), BatchSpellChecker.Policy.REPORT, true);
+            SpellCheckPipeline.Stats stats = checker.checkFile("batch_input.txt", "batch_output.txt");
+
+            String output = new String(Files.readAllBytes(Paths.get("batch_output.txt")));
+            List<String> report = Files.readAllLines(Paths.get(BatchSpellChecker.reportFileNameFor("batch_input.txt")));
+            check(output.equals("teh cat satt\nteh mat satt teh\n") && stats.misspellings() == 5
+                    && report.size() == 2 && report.get(0).startsWith("0\tteh\t") && report.get(1).startsWith("2\tsatt\t"),
+                    report.toString());
+            cleanup("batch_input.txt", "batch_output.txt", BatchSpellChecker.reportFileNameFor("batch_input.txt"));
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    private void testMetrics() {
+        System.out.println("\nTest 7: metrics count every lookup and suggestion search");
+        try {
+            createTestFile("batch_input.txt", "the cat satt\non teh mat\n");
+            Dictionary dictionary = testDictionary();
+            SpellCheckMetrics metrics = new SpellCheckMetrics();
+            WordRecommender recommender = new WordRecommender(dictionary).withMetrics(metrics);
+            BatchSpellChecker checker = new BatchSpellChecker(dictionary, new SuggestionCache(recommender),
+                    BatchSpellChecker.Policy.TOP_SUGGESTION);
+            checker.setMetrics(metrics);
+            checker.checkFile("batch_input.txt", "batch_output.txt");
+
+            long lookups = metrics.latency(SpellCheckMetrics.Stage.LOOKUP).count();
+            long searches = metrics.latency(SpellCheckMetrics.Stage.SUGGEST).count();
+            String json = metrics.toJson();
+            check(lookups == 6 && searches == 2 && metrics.wordCount() == 6 && json.contains("\"lookup\":{\"count\":6"),
+                    lookups + " lookups, " + searches + " searches, " + json);
+            cleanup("batch_input.txt", "batch_output.txt");
+        } catch (Exception e) {
+            System.out.println("FAILED: " + e.getMessage());
+        }
+    }
+
+    // Helper methods
+    private void check(boolean passed, String actual) {
+        if (passed) {
+            System.out.println("PASSED");
+        } else {
+            System.out.println("FAILED: got '" + actual + "'");
+        }
+    }
+
+    private void createTestFile(String filename, String content) throws IOException {
+        PrintWriter writer = new PrintWriter(new FileWriter(filename));
+        writer.print(content);
+        writer.close();
+    }
+
+    private String readFile(String filename) throws IOException {
+        Scanner scanner = new Scanner(new File(filename));
+        StringBuilder content = new StringBuilder();
+
+        while (scanner.hasNextLine()) {
+            content.append(scanner.nextLine());
+        }
+        scanner.close();
+
+        return content.toString();
+    }
+
+    private void cleanup(String... filenames) {
+        for (String filename : filenames) {
+            File file = new File(filename);
+            if (file.exists()) {
+                file.delete();
+            }
+        }
+    }
+}
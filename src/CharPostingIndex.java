@@ -0,0 +1,75 @@
+import java.util.HashMap;
+
+/**
+ * Inverted index from character to the dictionary words containing it, split by word length.
+ * For length L and character c it lists the positions within dictionary.wordsOfLength(L)
+ * of every word that contains c, ascending, so a lookup can reach the words containing a
+ * rare character without scanning the rest of the bucket.
+ */
+final class CharPostingIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    // ascii[len][c] for characters below 128; other[len] holds the rest (null if none)
+    private final int[][][] ascii;
+    private final HashMap<Character, int[]>[] other;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CharPostingIndex(Dictionary dictionary) {
+        int lengths = dictionary.maxLength() + 1;
+        ascii = new int[lengths][][];
+        other = new HashMap[lengths];
+
+        for (int len = 0; len < lengths; len++) {
+            int[] bucket = dictionary.wordsOfLength(len);
+
+            // Count postings per character first so every list is allocated at its exact size
+            int[] asciiCounts = new int[128];
+            HashMap<Character, Integer> otherCounts = new HashMap<>();
+            for (int index : bucket) {
+                for (char c : dictionary.signature(index).toChars()) {
+                    if (c < 128) {
+                        asciiCounts[c]++;
+                    } else {
+                        otherCounts.merge(c, 1, Integer::sum);
+                    }
+                }
+            }
+
+            ascii[len] = new int[128][];
+            for (int c = 0; c < 128; c++) {
+                ascii[len][c] = asciiCounts[c] == 0 ? EMPTY : new int[asciiCounts[c]];
+            }
+            if (!otherCounts.isEmpty()) {
+                HashMap<Character, int[]> lists = new HashMap<>();
+                otherCounts.forEach((c, count) -> lists.put(c, new int[count]));
+                other[len] = lists;
+            }
+
+            int[] asciiFill = new int[128];
+            HashMap<Character, Integer> otherFill = new HashMap<>();
+            for (int pos = 0; pos < bucket.length; pos++) {
+                for (char c : dictionary.signature(bucket[pos]).toChars()) {
+                    if (c < 128) {
+                        ascii[len][c][asciiFill[c]++] = pos;
+                    } else {
+                        int fill = otherFill.merge(c, 1, Integer::sum) - 1;
+                        other[len].get(c)[fill] = pos;
+                    }
+                }
+            }
+        }
+    }
+
+    static CharPostingIndex build(Dictionary dictionary) {
+        return new CharPostingIndex(dictionary);
+    }
+
+    /** Ascending positions within the length-len bucket of the words containing c. Callers must not modify it. */
+    int[] postings(int len, char c) {
+        if (c < 128) return ascii[len][c];
+        if (other[len] == null) return EMPTY;
+        int[] postings = other[len].get(c);
+        return postings == null ? EMPTY : postings;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+/**
+ * The set of distinct characters in a word, stored as two bitmasks for ASCII characters
+ * plus a sorted array for anything outside ASCII. Built once per word so that overlap
+ * checks against it allocate nothing.
+ */
+final class CharSignature {
+
+    private static final char[] NO_EXTRA = new char[0];
+
+    private final long low;     // bit c set for characters 0-63
+    private final long high;    // bit (c - 64) set for characters 64-127
+    private final char[] extra; // distinct non-ASCII characters, ascending
+
+    private CharSignature(long low, long high, char[] extra) {
+        this.low = low;
+        this.high = high;
+        this.extra = extra;
+    }
+
+    static CharSignature of(String word) {
+        return of(word.toCharArray(), 0, word.length());
+    }
+
+    /** The signature of the length characters of chars starting at start. */
+    static CharSignature of(char[] chars, int start, int length) {
+        long low = 0;
+        long high = 0;
+        char[] extra = NO_EXTRA;
+        int extraCount = 0;
+
+        for (int i = start; i < start + length; i++) {
+            char c = chars[i];
+            if (c < 64) {
+                low |= 1L << c;
+            } else if (c < 128) {
+                high |= 1L << (c - 64);
+            } else {
+                if (extraCount == extra.length) extra = Arrays.copyOf(extra, Math.max(4, extraCount * 2));
+                extraCount = insertSorted(extra, extraCount, c);
+            }
+        }
+
+        if (extraCount != extra.length) extra = Arrays.copyOf(extra, extraCount);
+        return new CharSignature(low, high, extra);
+    }
+
+    /** Rebuilds a signature from its stored parts, e.g. when reading a DictionarySnapshot; extra may be null. */
+    static CharSignature fromParts(long low, long high, char[] extra) {
+        return new CharSignature(low, high, extra == null || extra.length == 0 ? NO_EXTRA : extra);
+    }
+
+    long low() {
+        return low;
+    }
+
+    long high() {
+        return high;
+    }
+
+    /** The sorted non-ASCII characters. Callers must not modify the array. */
+    char[] extra() {
+        return extra;
+    }
+
+    /** Inserts c into the first count slots of sorted if absent; returns the new count. */
+    private static int insertSorted(char[] sorted, int count, char c) {
+        int pos = 0;
+        while (pos < count && sorted[pos] < c) pos++;
+        if (pos < count && sorted[pos] == c) return count;
+        System.arraycopy(sorted, pos, sorted, pos + 1, count - pos);
+        sorted[pos] = c;
+        return count + 1;
+    }
+
+    /** The distinct characters themselves, ASCII first, each group ascending. */
+    char[] toChars() {
+        char[] chars = new char[size()];
+        int n = 0;
+        for (long bits = low; bits != 0; bits &= bits - 1) chars[n++] = (char) Long.numberOfTrailingZeros(bits);
+        for (long bits = high; bits != 0; bits &= bits - 1) chars[n++] = (char) (64 + Long.numberOfTrailingZeros(bits));
+        System.arraycopy(extra, 0, chars, n, extra.length);
+        return chars;
+    }
+
+    /** Number of distinct characters. */
+    int size() {
+        return Long.bitCount(low) + Long.bitCount(high) + extra.length;
+    }
+
+    /** Number of characters in both sorted arrays, found with a merge walk. */
+    static int sharedCount(char[] a, char[] b) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,293 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * A symmetric-delete (SymSpell-style) index for finding dictionary words within a bounded
+ * Damerau-Levenshtein distance of a query: insertions, deletions, substitutions and swaps of
+ * two adjacent characters each cost 1. Two words within distance d always share a string
+ * reachable from each by at most d deletions, so the index maps every such deletion of every
+ * word to the words it came from. A lookup generates the query's own deletions, collects the
+ * words listed under them and verifies each candidate with the exact distance, never touching
+ * the rest of the dictionary.
+ *
+ * Only the first PREFIX_LENGTH characters of each word are used for the deletions. Two words
+ * within distance d also have prefixes sharing a string at most d deletions from each, so this
+ * loses no matches, while keeping the index small: for engDictionary.txt at distance 2 it
+ * holds about 480,000 keys and 1.46 million postings, roughly 10 MB.
+ *
+ * Keys are 32-bit hashes of the deletion strings, sorted, with the word indices of each key in
+ * one postings array. Two strings hashing alike only add candidates, which the exact distance
+ * then rejects. Duplicate words are indexed once, at their first index.
+ */
+final class DeletionIndex {
+
+    static final int PREFIX_LENGTH = 7;
+
+    private final WordArena words;
+    private final int maxDistance;
+    private final int[] keys;      // sorted distinct deletion hashes
+    private final int[] offsets;   // postings of keys[k] are postings[offsets[k], offsets[k + 1])
+    private final int[] postings;  // word indices, ascending within each key
+
+    private DeletionIndex(WordArena words, int maxDistance, int[] keys, int[] offsets, int[] postings) {
+        this.words = words;
+        this.maxDistance = maxDistance;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /** Indexes every distinct word of dictionary for lookups within maxDistance edits. */
+    static DeletionIndex build(Dictionary dictionary, int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Maximum distance must be non-negative: " + maxDistance);
+        }
+        WordArena words = dictionary.words();
+        char[] chars = words.chars();
+
+        HashSet<String> seen = new HashSet<>();
+        boolean[] indexed = new boolean[dictionary.size()];
+        int pairTotal = 0;
+        for (int i = 0; i < dictionary.size(); i++) {
+            if (!seen.add(words.word(i))) continue; // duplicate word
+            indexed[i] = true;
+            pairTotal += deletionCount(Math.min(words.length(i), PREFIX_LENGTH), maxDistance);
+        }
+
+        // One (hash, word) pair per deletion, packed into a long so a single primitive sort groups them
+        long[] pairs = new long[pairTotal];
+        int pairCount = 0;
+        int[] hashes = new int[deletionCount(PREFIX_LENGTH, maxDistance)];
+        for (int i = 0; i < dictionary.size(); i++) {
+            if (!indexed[i]) continue;
+            int count = deletionHashes(chars, words.start(i), Math.min(words.length(i), PREFIX_LENGTH),
+                    maxDistance, hashes);
+            for (int h = 0; h < count; h++) {
+                pairs[pairCount++] = ((long) hashes[h] << 32) | i;
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        int[] keys = new int[pairCount];
+        int[] offsets = new int[pairCount + 1];
+        int[] postings = new int[pairCount];
+        int keyCount = 0;
+        int postingCount = 0;
+        for (int p = 0; p < pairCount; p++) {
+            if (p > 0 && pairs[p] == pairs[p - 1]) continue; // same deletion reached twice
+            int key = (int) (pairs[p] >> 32);
+            if (keyCount == 0 || keys[keyCount - 1] != key) {
+                keys[keyCount] = key;
+                offsets[keyCount++] = postingCount;
+            }
+            postings[postingCount++] = (int) pairs[p];
+        }
+        offsets[keyCount] = postingCount;
+        return new DeletionIndex(words, maxDistance, Arrays.copyOf(keys, keyCount),
+                Arrays.copyOf(offsets, keyCount + 1), Arrays.copyOf(postings, postingCount));
+    }
+
+    /** The largest distance search accepts. */
+    int maxDistance() {
+        return maxDistance;
+    }
+
+    /** Number of distinct deletion keys, for reporting the index size. */
+    int keyCount() {
+        return keys.length;
+    }
+
+    /** Number of (key, word) postings, for reporting the index size. */
+    int postingCount() {
+        return postings.length;
+    }
+
+    /**
+     * Offers every word within maxDistance of word to best: fewest edits first, then the
+     * highest getSimilarity with word. Returns how many distinct candidates the index produced
+     * for checking.
+     */
+    int search(String word, int maxDistance, SuggestionHeap best) {
+        if (maxDistance > this.maxDistance) {
+            throw new IllegalArgumentException("Index was built for distances up to " + this.maxDistance
+                    + ", not " + maxDistance);
+        }
+        if (maxDistance < 0) return 0;
+
+        char[] query = word.toCharArray();
+        int prefix = Math.min(query.length, PREFIX_LENGTH);
+        int[] hashes = new int[deletionCount(prefix, maxDistance)];
+        int hashCount = deletionHashes(query, 0, prefix, maxDistance, hashes);
+
+        // Gather candidates from every matching key, then visit each once in index order
+        int[] candidates = new int[64];
+        int candidateCount = 0;
+        for (int h = 0; h < hashCount; h++) {
+            int k = Arrays.binarySearch(keys, hashes[h]);
+            if (k < 0) continue;
+            int from = offsets[k];
+            int to = offsets[k + 1];
+            int needed = candidateCount + to - from;
+            if (needed > candidates.length) candidates = Arrays.copyOf(candidates, Math.max(candidates.length * 2, needed));
+            System.arraycopy(postings, from, candidates, candidateCount, to - from);
+            candidateCount += to - from;
+        }
+        Arrays.sort(candidates, 0, candidateCount);
+
+        Scratch scratch = new Scratch();
+        char[] chars = words.chars();
+        int distinct = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            int index = candidates[c];
+            if (c > 0 && index == candidates[c - 1]) continue;
+            distinct++;
+            int length = words.length(index);
+            if (Math.abs(length - query.length) > maxDistance) continue;
+            int d = distance(query, 0, query.length, chars, words.start(index), length, maxDistance, scratch);
+            if (d <= maxDistance) {
+                // Similarity is at most the query's length, so it only orders words at equal distance
+                double similarity = WordRecommender.boundedSimilarity(word, chars, words.start(index), length,
+                        Double.NEGATIVE_INFINITY);
+                best.offer(-d + similarity / (query.length + 1), index);
+            }
+        }
+        return distinct;
+    }
+
+    /** How many ways there are to remove at most maxDistance of length positions. */
+    private static int deletionCount(int length, int maxDistance) {
+        int total = 0;
+        long combinations = 1; // length choose k
+        for (int k = 0; k <= Math.min(maxDistance, length); k++) {
+            total += (int) combinations;
+            combinations = combinations * (length - k) / (k + 1);
+        }
+        return total;
+    }
+
+    /**
+     * Writes the hash of chars[from, from + length) with each set of at most maxDistance
+     * positions removed into hashes, which must hold deletionCount(length, maxDistance), and
+     * returns how many were written. Removals giving the same string give the same hash.
+     */
+    private static int deletionHashes(char[] chars, int from, int length, int maxDistance, int[] hashes) {
+        int[] removed = new int[Math.max(1, maxDistance)];
+        return addDeletions(chars, from, length, Math.min(maxDistance, length), removed, 0, 0, hashes, 0);
+    }
+
+    private static int addDeletions(char[] chars, int from, int length, int maxDistance, int[] removed,
+                                    int removedCount, int nextPosition, int[] hashes, int count) {
+        hashes[count++] = hash(chars, from, length, removed, removedCount);
+        if (removedCount == maxDistance) return count;
+        for (int position = nextPosition; position < length; position++) {
+            removed[removedCount] = position;
+            count = addDeletions(chars, from, length, maxDistance, removed, removedCount + 1, position + 1,
+                    hashes, count);
+        }
+        return count;
+    }
+
+    /** Hash of chars[from, from + length) without the ascending positions removed[0, removedCount). */
+    private static int hash(char[] chars, int from, int length, int[] removed, int removedCount) {
+        int h = 0;
+        int r = 0;
+        for (int i = 0; i < length; i++) {
+            if (r < removedCount && removed[r] == i) {
+                r++;
+                continue;
+            }
+            h = 31 * h + chars[from + i];
+        }
+        h = 31 * h + (length - removedCount);
+        // Spread the bits so similar strings do not cluster (MurmurHash3 finalizer)
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Unrestricted Damerau-Levenshtein distance between the la characters of a from aStart and
+     * the lb characters of b from bStart (Lowrance-Wagner), reusing scratch's matrix. Returns
+     * cap + 1 as soon as the distance is known to exceed cap.
+     */
+    static int distance(char[] a, int aStart, int la, char[] b, int bStart, int lb, int cap, Scratch scratch) {
+        if (Math.abs(la - lb) > cap) return cap + 1;
+        int width = lb + 2;
+        int[] d = scratch.matrix((la + 2) * width);
+        scratch.resetLastRows();
+
+        // Row/column 0 hold the "infinity" sentinel; row/column 1 are the empty-prefix distances
+        int infinity = la + lb;
+        d[0] = infinity;
+        for (int i = 0; i <= la; i++) {
+            d[(i + 1) * width] = infinity;
+            d[(i + 1) * width + 1] = i;
+        }
+        for (int j = 0; j <= lb; j++) {
+            d[j + 1] = infinity;
+            d[width + j + 1] = j;
+        }
+
+        for (int i = 1; i <= la; i++) {
+            char ca = a[aStart + i - 1];
+            int lastMatchColumn = 0;
+            int rowMin = d[(i + 1) * width + 1];
+            for (int j = 1; j <= lb; j++) {
+                char cb = b[bStart + j - 1];
+                int k = scratch.lastRow(cb); // last row where cb appeared in a
+                int l = lastMatchColumn;     // last column in this row where b matched ca
+                int cost = 1;
+                if (ca == cb) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                int value = Math.min(Math.min(
+                        d[i * width + j] + cost,               // substitution
+                        d[(i + 1) * width + j] + 1),           // insertion
+                        d[i * width + j + 1] + 1);             // deletion
+                value = Math.min(value, d[k * width + l] + (i - k - 1) + 1 + (j - l - 1)); // transposition
+                d[(i + 1) * width + j + 1] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // Later rows can never drop below this row's minimum, transpositions included
+            if (rowMin > cap) return cap + 1;
+            scratch.setLastRow(ca, i);
+        }
+        return d[(la + 1) * width + lb + 1];
+    }
+
+    /** Reusable working memory so distance computations do not allocate per word. */
+    static final class Scratch {
+        private int[] matrix = new int[256];
+        // Last row (1-based) in which each character occurred in a; ASCII in an array, the rest in a map
+        private final int[] asciiLastRow = new int[128];
+        private final HashMap<Character, Integer> otherLastRow = new HashMap<>();
+
+        int[] matrix(int size) {
+            if (matrix.length < size) matrix = new int[Math.max(size, matrix.length * 2)];
+            return matrix;
+        }
+
+        void resetLastRows() {
+            Arrays.fill(asciiLastRow, 0);
+            if (!otherLastRow.isEmpty()) otherLastRow.clear();
+        }
+
+        int lastRow(char c) {
+            if (c < 128) return asciiLastRow[c];
+            Integer row = otherLastRow.get(c);
+            return row == null ? 0 : row;
+        }
+
+        void setLastRow(char c, int row) {
+            if (c < 128) {
+                asciiLastRow[c] = row;
+            } else {
+                otherLastRow.put(c, row);
+            }
+        }
+    }
+}
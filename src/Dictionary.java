@@ -0,0 +1,151 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * An immutable, loaded-once word list shared by SpellChecker and WordRecommender.
+ * Words are trimmed, lowercased and kept in file order; blank lines are skipped.
+ */
+public final class Dictionary {
+
+    // Every word packed into one char array, in file order
+    private final WordArena words;
+    // Open-addressing index of word positions in the arena, for contains()
+    private final WordArena.HashIndex membership;
+    // lengthBuckets[len] holds the indices of every word of that length, in dictionary order
+    private final int[][] lengthBuckets;
+    // The distinct-character set of each word
+    private final SignatureTable signatures;
+
+    // Time spent reading (when loaded from a file) and indexing the words
+    private final long loadNanos;
+
+    private Dictionary(List<String> words) {
+        this(words, System.nanoTime());
+    }
+
+    private Dictionary(List<String> words, long loadStartNanos) {
+        this.words = WordArena.of(words);
+        this.membership = this.words.hashIndex();
+        this.lengthBuckets = buildLengthBuckets(this.words);
+        this.signatures = SignatureTable.of(this.words);
+        this.loadNanos = System.nanoTime() - loadStartNanos;
+    }
+
+    /** Wraps indexes that were precomputed elsewhere, i.e. read back from a DictionarySnapshot. */
+    Dictionary(WordArena words, int[][] lengthBuckets, SignatureTable signatures, long loadStartNanos) {
+        this.words = words;
+        this.membership = words.hashIndex();
+        this.lengthBuckets = lengthBuckets;
+        this.signatures = signatures;
+        this.loadNanos = System.nanoTime() - loadStartNanos;
+    }
+
+    /** Reads one word per line from fileName. */
+    public static Dictionary load(String fileName) throws IOException {
+        long start = System.nanoTime();
+        List<String> words = DictionaryLoader.readWords(fileName);
+        return new Dictionary(words, start);
+    }
+
+    /** Builds a dictionary from words already in memory, normalised the same way as load. */
+    public static Dictionary fromWords(Collection<String> words) {
+        List<String> normalised = new ArrayList<>();
+        for (String word : words) {
+            String w = word.trim().toLowerCase();
+            if (!w.isEmpty()) {
+                normalised.add(w);
+            }
+        }
+        return new Dictionary(normalised);
+    }
+
+    /** An empty dictionary, used when a file could not be read. */
+    public static Dictionary empty() {
+        return new Dictionary(new ArrayList<>());
+    }
+
+    /** Groups word indices by length so a lookup only visits lengths within tolerance. */
+    private static int[][] buildLengthBuckets(WordArena words) {
+        int maxLength = 0;
+        for (int i = 0; i < words.size(); i++) maxLength = Math.max(maxLength, words.length(i));
+
+        int[] counts = new int[maxLength + 1];
+        for (int i = 0; i < words.size(); i++) counts[words.length(i)]++;
+
+        int[][] buckets = new int[maxLength + 1][];
+        for (int len = 0; len <= maxLength; len++) buckets[len] = new int[counts[len]];
+
+        int[] fill = new int[maxLength + 1];
+        for (int i = 0; i < words.size(); i++) {
+            int len = words.length(i);
+            buckets[len][fill[len]++] = i;
+        }
+        return buckets;
+    }
+
+    /** Whether word is in the dictionary. */
+    public boolean contains(String word) {
+        return membership.contains(word);
+    }
+
+    /** Every distinct word starting with prefix, in sorted order. */
+    public List<String> wordsWithPrefix(String prefix) {
+        TreeSet<String> matches = new TreeSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            if (words.startsWith(i, prefix)) matches.add(words.word(i));
+        }
+        return new ArrayList<>(matches);
+    }
+
+    /** Number of words, counting duplicate lines. */
+    public int size() {
+        return words.size();
+    }
+
+    /** The word at index, in file order. Each call creates a new String. */
+    public String word(int index) {
+        return words.word(index);
+    }
+
+    /** A hash of every word in order, for telling whether saved check results came from this dictionary. */
+    long fingerprint() {
+        long hash = words.size();
+        char[] chars = words.chars();
+        for (int i = 0; i < words.size(); i++) {
+            hash = hash * 31 + words.length(i);
+            for (int p = words.start(i), end = p + words.length(i); p < end; p++) hash = hash * 31 + chars[p];
+        }
+        return hash;
+    }
+
+    /** Milliseconds spent reading (when loaded from a file) and indexing the words. */
+    public double loadTimeMillis() {
+        return loadNanos / 1e6;
+    }
+
+    /** Length of the longest word. */
+    int maxLength() {
+        return lengthBuckets.length - 1;
+    }
+
+    /** Indices of every word of the given length, in dictionary order. Callers must not modify the array. */
+    int[] wordsOfLength(int length) {
+        return lengthBuckets[length];
+    }
+
+    /** The packed words, for scans that compare characters in place. */
+    WordArena words() {
+        return words;
+    }
+
+    CharSignature signature(int index) {
+        return signatures.get(index);
+    }
+
+    SignatureTable signatures() {
+        return signatures;
+    }
+}
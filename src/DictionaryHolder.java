@@ -0,0 +1,139 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the current SpellCheckCore for a dictionary file plus an optional user word list, and
+ * replaces it when either file changes. A reload builds a complete new core (dictionary,
+ * indexes, recommender and an empty suggestion cache) on the calling or watcher thread, then
+ * publishes it with a single reference swap. Readers never lock: each request takes current()
+ * once and keeps using that immutable core, so it sees either the old words or the new ones,
+ * never a mix, and in-flight work on the old core simply finishes on it.
+ *
+ * User words are appended after the dictionary's own, so ties in suggestion ranking still go
+ * to the main dictionary's words. A missing user word list counts as empty.
+ */
+public final class DictionaryHolder implements AutoCloseable {
+
+    // A burst of change events is treated as one change once no more arrive for this long
+    static final long QUIET_MILLIS = 200;
+
+    private final String dictionaryFileName;
+    private final String userWordsFileName; // null for none
+    private final AtomicReference<SpellCheckCore> current = new AtomicReference<>();
+    private final Object reloadLock = new Object();
+    private WatchService watcher;
+
+    /** Loads both files now; the user word list may be null. */
+    public DictionaryHolder(String dictionaryFileName, String userWordsFileName) throws IOException {
+        this.dictionaryFileName = dictionaryFileName;
+        this.userWordsFileName = userWordsFileName;
+        current.set(new SpellCheckCore(loadDictionary()));
+    }
+
+    /** The core built from the most recently loaded words. */
+    public SpellCheckCore current() {
+        return current.get();
+    }
+
+    private Dictionary loadDictionary() throws IOException {
+        if (userWordsFileName == null || !new File(userWordsFileName).isFile()) {
+            return DictionarySnapshot.loadWithSnapshot(dictionaryFileName);
+        }
+        List<String> words = DictionaryLoader.readWords(dictionaryFileName);
+        words.addAll(DictionaryLoader.readWords(userWordsFileName));
+        return Dictionary.fromWords(words);
+    }
+
+    /**
+     * Re-reads both files and publishes a new core if the words changed. Returns whether one was
+     * published. If the files cannot be read, e.g. mid-write, the current core stays in place.
+     */
+    public boolean reload() {
+        synchronized (reloadLock) {
+            try {
+                Dictionary dictionary = loadDictionary();
+                if (dictionary.fingerprint() == current.get().getDictionary().fingerprint()) {
+                    return false; // unchanged: keep the warm suggestion cache
+                }
+                current.set(new SpellCheckCore(dictionary));
+                return true;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Dictionary reload failed, keeping the current words: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /** Starts a daemon thread that reloads whenever either file is created, modified or deleted. */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) return;
+        Set<Path> files = new HashSet<>();
+        files.add(Paths.get(dictionaryFileName).toAbsolutePath().normalize());
+        if (userWordsFileName != null) files.add(Paths.get(userWordsFileName).toAbsolutePath().normalize());
+
+        // Watch the directories, since editors often replace a file rather than write to it
+        watcher = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        for (Path file : files) directories.add(file.getParent());
+        for (Path directory : directories) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+
+        WatchService service = watcher;
+        Thread thread = new Thread(() -> watch(service, files), "dictionary-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch(WatchService service, Set<Path> files) {
+        try {
+            while (true) {
+                boolean changed = affects(service.take(), files);
+                WatchKey more;
+                while ((more = service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= affects(more, files);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed: stop watching
+        }
+    }
+
+    /** Whether any of key's events concern one of files; re-arms the key. */
+    private static boolean affects(WatchKey key, Set<Path> files) {
+        boolean affected = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || files.contains(directory.resolve((Path) event.context()))) {
+                affected = true;
+            }
+        }
+        key.reset();
+        return affected;
+    }
+
+    /** Stops watching; current() keeps working. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+}
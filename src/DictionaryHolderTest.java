@@ -0,0 +1,135 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class DictionaryHolderTest {
+    public static void main(String[] args) {
+        DictionaryHolderTest tester = new DictionaryHolderTest();
+        tester.runTests();
+    }
+
+    private static final String DICTIONARY = "holder_dict.txt";
+    private static final String USER_WORDS = "holder_user_words.txt";
+
+    private void runTests() {
+        System.out.println("Running DictionaryHolder.java tests:");
+        testReload();
+        testWatch();
+        testConcurrentReload();
+        System.out.println("All DictionaryHolder.java tests finished.");
+    }
+
+    // Test that reload picks up user words and edits, skips unchanged files and survives a missing dictionary
+    private void testReload() {
+        System.out.println("\n testReload");
+        try {
+            writeFile(DICTIONARY, "cat\ndog\n");
+            DictionaryHolder holder = new DictionaryHolder(DICTIONARY, USER_WORDS);
+            boolean before = holder.current().isCorrect("cat") && !holder.current().isCorrect("gnu");
+
+            writeFile(USER_WORDS, "gnu\n");
+            boolean reloaded = holder.reload();
+            SpellCheckCore withUserWords = holder.current();
+            boolean unchanged = !holder.reload() && holder.current() == withUserWords;
+
+            new File(DICTIONARY).delete();
+            boolean failed = !holder.reload() && holder.current() == withUserWords;
+
+            System.out.println("Words after reload: " + withUserWords.getDictionary().size());
+            boolean passed = before && reloaded && withUserWords.isCorrect("gnu") && withUserWords.isCorrect("dog")
+                    && unchanged && failed;
+            System.out.println(passed ? "testReload: PASSED" : "testReload: FAILED");
+        } catch (IOException e) {
+            System.out.println("testReload: FAILED, " + e.getMessage());
+        } finally {
+            cleanup();
+        }
+    }
+
+    // Test that the watcher notices a change to the dictionary file on its own
+    private void testWatch() {
+        System.out.println("\n testWatch");
+        try (DictionaryHolder holder = createHolder("cat\ndog\n")) {
+            holder.startWatching();
+            writeFile(DICTIONARY, "cat\ndog\nyak\n");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!holder.current().isCorrect("yak") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            boolean passed = holder.current().isCorrect("yak");
+            System.out.println(passed ? "testWatch: PASSED" : "testWatch: FAILED, change not picked up");
+        } catch (IOException | InterruptedException e) {
+            System.out.println("testWatch: FAILED, " + e.getMessage());
+        } finally {
+            cleanup();
+        }
+    }
+
+    // Stress test: readers working while the words are swapped back and forth must always get
+    // answers consistent with the one core they took, never a mix of old and new
+    private void testConcurrentReload() {
+        System.out.println("\n testConcurrentReload");
+        String small = "cat\ncoat\nboat\n";
+        String large = "cat\ncoat\nboat\ncoatt\n";
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (DictionaryHolder holder = createHolder(small)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(readers.submit(() -> {
+                    int failures = 0;
+                    while (running.get()) {
+                        SpellCheckCore core = holder.current();
+                        boolean hasWord = core.getDictionary().size() == 4;
+                        List<String> suggestions = core.suggestions("coatt");
+                        if (core.isCorrect("coatt") != hasWord || suggestions.contains("coatt") != hasWord) failures++;
+                    }
+                    return failures;
+                }));
+            }
+
+            int reloads = 0;
+            for (int i = 0; i < 40; i++) {
+                writeFile(DICTIONARY, i % 2 == 0 ? large : small);
+                if (holder.reload()) reloads++;
+            }
+            running.set(false);
+            int failures = 0;
+            for (Future<Integer> result : results) failures += result.get(30, TimeUnit.SECONDS);
+
+            System.out.println(reloads + " reloads, " + failures + " inconsistent answers");
+            System.out.println(reloads == 40 && failures == 0 ? "testConcurrentReload: PASSED" : "testConcurrentReload: FAILED");
+        } catch (Exception e) {
+            System.out.println("testConcurrentReload: FAILED, " + e);
+        } finally {
+            running.set(false);
+            readers.shutdownNow();
+            cleanup();
+        }
+    }
+
+    // Helper methods
+    private DictionaryHolder createHolder(String words) throws IOException {
+        writeFile(DICTIONARY, words);
+        return new DictionaryHolder(DICTIONARY, null);
+    }
+
+    private void writeFile(String fileName, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.write(content);
+        }
+    }
+
+    private void cleanup() {
+        new File(DICTIONARY).delete();
+        new File(USER_WORDS).delete();
+    }
+}
@@ -0,0 +1,145 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Reads a one-word-per-line dictionary file through a memory-mapped FileChannel.
+ * Lines are split, trimmed and lowercased in a single pass over the bytes; pure ASCII
+ * lines (the common case) go straight into a reused char buffer without any decoding, and
+ * other lines are decoded with the platform default charset, like Scanner and the
+ * SpellCheckPipeline that reads the documents. Produces the same words as the old
+ * Scanner.nextLine().trim().toLowerCase() loop.
+ */
+public final class DictionaryLoader {
+
+    private DictionaryLoader() {
+    }
+
+    /** Returns the non-blank, trimmed, lowercased lines of fileName in file order. */
+    public static List<String> readWords(String fileName) throws IOException {
+        if (!asciiCompatible(Charset.defaultCharset())) {
+            // Byte-level line splitting only works where ASCII text encodes as itself (not UTF-16, EBCDIC)
+            return readWordsWithScanner(fileName);
+        }
+        List<String> words = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary file is too large to map: " + fileName);
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            char[] buffer = new char[64];
+            int lineStart = 0;
+            int limit = (int) size;
+            while (lineStart < limit) {
+                // Find the end of the line, noting whether it is all ASCII
+                int lineEnd = lineStart;
+                boolean ascii = true;
+                while (lineEnd < limit) {
+                    byte b = bytes.get(lineEnd);
+                    if (b == '\n' || b == '\r') break;
+                    if (b < 0) ascii = false;
+                    lineEnd++;
+                }
+
+                if (ascii) {
+                    if (lineEnd - lineStart > buffer.length) buffer = new char[lineEnd - lineStart];
+                    addAsciiLine(bytes, lineStart, lineEnd, buffer, words);
+                } else {
+                    addDecodedLine(bytes, lineStart, lineEnd, words);
+                }
+
+                // Step over \n, \r or \r\n
+                if (lineEnd < limit && bytes.get(lineEnd) == '\r') lineEnd++;
+                if (lineEnd < limit && bytes.get(lineEnd) == '\n') lineEnd++;
+                lineStart = lineEnd;
+            }
+        }
+        return words;
+    }
+
+    /** Whether every ASCII character encodes in charset as its own single byte. */
+    static boolean asciiCompatible(Charset charset) {
+        if (!charset.canEncode()) return false;
+        byte[] ascii = new byte[128];
+        for (int i = 0; i < ascii.length; i++) ascii[i] = (byte) i;
+        return Arrays.equals(new String(ascii, StandardCharsets.US_ASCII).getBytes(charset), ascii);
+    }
+
+    /** Trims and lowercases bytes[from, to) into buffer and adds it as a word if not blank. */
+    private static void addAsciiLine(MappedByteBuffer bytes, int from, int to, char[] buffer, List<String> words) {
+        while (from < to && bytes.get(from) <= ' ') from++;
+        while (to > from && bytes.get(to - 1) <= ' ') to--;
+        if (from == to) return;
+
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            char c = (char) bytes.get(i);
+            if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            buffer[length++] = c;
+        }
+        words.add(new String(buffer, 0, length));
+    }
+
+    /** Slow path for lines with non-ASCII bytes: decode in the default charset, honouring Scanner's Unicode line breaks. */
+    private static void addDecodedLine(MappedByteBuffer bytes, int from, int to, List<String> words) {
+        byte[] raw = new byte[to - from];
+        bytes.get(from, raw);
+        String line = new String(raw, Charset.defaultCharset());
+        for (String part : line.split("[\\u0085\\u2028\\u2029]", -1)) {
+            String w = part.trim().toLowerCase();
+            if (!w.isEmpty()) {
+                words.add(w);
+            }
+        }
+    }
+
+    /** The original Scanner-based loop, kept to compare load times against readWords. */
+    static List<String> readWordsWithScanner(String fileName) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (Scanner sc = new Scanner(new File(fileName))) {
+            while (sc.hasNextLine()) {
+                String w = sc.nextLine().trim().toLowerCase();
+                if (!w.isEmpty()) {
+                    words.add(w);
+                }
+            }
+        }
+        return words;
+    }
+
+    /** Reports load times for both loaders: java DictionaryLoader engDictionary.txt */
+    public static void main(String[] args) throws IOException {
+        String fileName = args.length > 0 ? args[0] : "engDictionary.txt";
+        int rounds = 10;
+
+        // Warm both paths up before timing them
+        for (int i = 0; i < rounds; i++) {
+            readWordsWithScanner(fileName);
+            readWords(fileName);
+        }
+
+        long start = System.nanoTime();
+        int count = 0;
+        for (int i = 0; i < rounds; i++) count = readWordsWithScanner(fileName).size();
+        double scannerMillis = (System.nanoTime() - start) / 1e6 / rounds;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) count = readWords(fileName).size();
+        double mappedMillis = (System.nanoTime() - start) / 1e6 / rounds;
+
+        System.out.printf("Loaded %d words from '%s'.%n", count, fileName);
+        System.out.printf("Scanner loader: %.2f ms%n", scannerMillis);
+        System.out.printf("Mapped loader:  %.2f ms%n", mappedMillis);
+    }
+}
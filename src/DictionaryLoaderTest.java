@@ -0,0 +1,69 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+public class DictionaryLoaderTest {
+    public static void main(String[] args) {
+        DictionaryLoaderTest tester = new DictionaryLoaderTest();
+        tester.runTests();
+    }
+
+    private static final String DICTIONARY = "loader_dict.txt";
+
+    private void runTests() {
+        System.out.println("Running DictionaryLoader.java tests:");
+        testSameAsScanner();
+        testNonAsciiWord();
+        System.out.println("All DictionaryLoader.java tests finished.");
+    }
+
+    // Test that blank lines, padding, case, every line break style and non-ASCII words give
+    // exactly the words the Scanner loop gives
+    private void testSameAsScanner() {
+        System.out.println("\n testSameAsScanner");
+        try {
+            String text = "Apple\r\n  dog \n\n\rCAT\rCaf\u00e9\nNa\u00efve\u2028x\u0085y\n\u00c9t\u00e9 \nlast";
+            writeBytes(DICTIONARY, text.getBytes(Charset.defaultCharset()));
+            List<String> mapped = DictionaryLoader.readWords(DICTIONARY);
+            List<String> scanned = DictionaryLoader.readWordsWithScanner(DICTIONARY);
+            System.out.println("Charset " + Charset.defaultCharset() + ": " + mapped.size() + " words");
+            boolean passed = mapped.equals(scanned);
+            System.out.println(passed ? "testSameAsScanner: PASSED"
+                    : "testSameAsScanner: FAILED, " + mapped + " vs " + scanned);
+        } catch (IOException e) {
+            System.out.println("testSameAsScanner: FAILED, " + e.getMessage());
+        } finally {
+            new File(DICTIONARY).delete();
+        }
+    }
+
+    // Test that a non-ASCII word saved in the default charset loads as that word, so it can match a document
+    private void testNonAsciiWord() {
+        System.out.println("\n testNonAsciiWord");
+        Charset charset = Charset.defaultCharset();
+        String word = "caf\u00e9";
+        if (!charset.newEncoder().canEncode(word)) {
+            System.out.println("testNonAsciiWord: PASSED, skipped: " + charset + " cannot encode '" + word + "'");
+            return;
+        }
+        try {
+            writeBytes(DICTIONARY, "tea\nCAF\u00c9\n".getBytes(charset));
+            List<String> words = DictionaryLoader.readWords(DICTIONARY);
+            boolean passed = words.size() == 2 && words.get(1).equals(word);
+            System.out.println(passed ? "testNonAsciiWord: PASSED" : "testNonAsciiWord: FAILED, " + words);
+        } catch (IOException e) {
+            System.out.println("testNonAsciiWord: FAILED, " + e.getMessage());
+        } finally {
+            new File(DICTIONARY).delete();
+        }
+    }
+
+    // Helper methods
+    private void writeBytes(String fileName, byte[]... parts) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(fileName)) {
+            for (byte[] part : parts) out.write(part);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A compiled binary form of a dictionary text file, so repeated runs skip parsing,
+ * lowercasing and re-indexing. The snapshot stores the words in their original file
+ * order (suggestion tie-breaks depend on it), the length buckets and every word's
+ * character signature, plus the length and CRC32 of the source text and the default
+ * charset it was decoded with, so a stale snapshot is detected and ignored. The body has
+ * its own length and CRC32, so a damaged snapshot is rejected instead of loaded.
+ *
+ * Layout (big-endian): magic, version, source length, source CRC32, charset name,
+ * body length, body CRC32, then the body: word count, total chars, word end offsets,
+ * word chars, max length, length buckets, signature low masks, signature high masks,
+ * then the non-ASCII signature chars of the words that have any.
+ *
+ * Compile with: java DictionarySnapshot engDictionary.txt [engDictionary.txt.snap]
+ */
+public final class DictionarySnapshot {
+
+    private static final int MAGIC = 0x53504443; // "SPDC"
+    private static final int VERSION = 2;
+
+    private DictionarySnapshot() {
+    }
+
+    /** The snapshot file name used alongside a dictionary text file. */
+    public static String snapshotFileFor(String textFileName) {
+        return textFileName + ".snap";
+    }
+
+    /**
+     * Loads textFileName, using its snapshot if one exists, still matches the text and is
+     * intact; otherwise parses the text file.
+     */
+    public static Dictionary loadWithSnapshot(String textFileName) throws IOException {
+        String snapshotFileName = snapshotFileFor(textFileName);
+        if (new File(snapshotFileName).isFile()) {
+            try {
+                Dictionary dictionary = load(snapshotFileName, textFileName);
+                if (dictionary != null) {
+                    return dictionary;
+                }
+            } catch (IOException e) {
+                // Unreadable, foreign or corrupt snapshot - fall back to the text file
+            }
+        }
+        return Dictionary.load(textFileName);
+    }
+
+    /** Parses textFileName and writes its snapshot to snapshotFileName. */
+    public static void compile(String textFileName, String snapshotFileName) throws IOException {
+        long[] source = checksum(textFileName);
+        Dictionary dictionary = Dictionary.load(textFileName);
+
+        // The body is built in memory first so its length and CRC can go in the header
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            WordArena words = dictionary.words();
+            int wordCount = words.size();
+            out.writeInt(wordCount);
+            out.writeInt(words.start(wordCount));
+
+            for (int i = 0; i < wordCount; i++) out.writeInt(words.start(i + 1));
+            for (int i = 0; i < words.start(wordCount); i++) out.writeChar(words.chars()[i]);
+
+            out.writeInt(dictionary.maxLength());
+            for (int len = 0; len <= dictionary.maxLength(); len++) {
+                int[] bucket = dictionary.wordsOfLength(len);
+                out.writeInt(bucket.length);
+                for (int index : bucket) out.writeInt(index);
+            }
+
+            for (int i = 0; i < wordCount; i++) out.writeLong(dictionary.signature(i).low());
+            for (int i = 0; i < wordCount; i++) out.writeLong(dictionary.signature(i).high());
+
+            // Only the few words with non-ASCII characters carry extra signature chars
+            int extraWords = 0;
+            for (int i = 0; i < wordCount; i++) if (dictionary.signature(i).extra().length > 0) extraWords++;
+            out.writeInt(extraWords);
+            for (int i = 0; i < wordCount; i++) {
+                char[] extra = dictionary.signature(i).extra();
+                if (extra.length > 0) {
+                    out.writeInt(i);
+                    out.writeShort(extra.length);
+                    for (char c : extra) out.writeChar(c);
+                }
+            }
+        }
+        CRC32 bodyCrc = new CRC32();
+        bodyCrc.update(body.toByteArray());
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(snapshotFileName), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(source[0]);
+            out.writeLong(source[1]);
+            out.writeUTF(Charset.defaultCharset().name());
+            out.writeLong(body.size());
+            out.writeLong(bodyCrc.getValue());
+            body.writeTo(out);
+        }
+    }
+
+    /**
+     * Maps snapshotFileName and rebuilds the dictionary from it. Returns null if the snapshot
+     * was compiled from a different version of textFileName or under a different default
+     * charset, and throws IOException if its body fails the CRC check.
+     */
+    public static Dictionary load(String snapshotFileName, String textFileName) throws IOException {
+        long start = System.nanoTime();
+        long[] source = checksum(textFileName);
+
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotFileName), StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < 24 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a dictionary snapshot: " + snapshotFileName);
+            }
+            if (in.getLong() != source[0] || in.getLong() != source[1]
+                    || !readUTF(in).equals(Charset.defaultCharset().name())) {
+                return null;
+            }
+            long bodyLength = in.getLong();
+            long bodyCrc = in.getLong();
+            if (bodyLength != in.remaining() || bodyCrc != checksum(in.duplicate())) {
+                throw new IOException("Corrupt dictionary snapshot: " + snapshotFileName);
+            }
+
+            int wordCount = in.getInt();
+            int totalChars = in.getInt();
+            // The stored end offsets become the arena's offsets after a leading 0
+            int[] offsets = new int[wordCount + 1];
+            in.asIntBuffer().get(offsets, 1, wordCount);
+            in.position(in.position() + 4 * wordCount);
+            char[] chars = new char[totalChars];
+            in.asCharBuffer().get(chars);
+            in.position(in.position() + 2 * totalChars);
+            WordArena words = new WordArena(chars, offsets);
+
+            int maxLength = in.getInt();
+            int[][] lengthBuckets = new int[maxLength + 1][];
+            for (int len = 0; len <= maxLength; len++) {
+                lengthBuckets[len] = new int[in.getInt()];
+                in.asIntBuffer().get(lengthBuckets[len]);
+                in.position(in.position() + 4 * lengthBuckets[len].length);
+            }
+
+            long[] lows = new long[wordCount];
+            long[] highs = new long[wordCount];
+            in.asLongBuffer().get(lows);
+            in.position(in.position() + 8 * wordCount);
+            in.asLongBuffer().get(highs);
+            in.position(in.position() + 8 * wordCount);
+
+            char[][] extras = new char[wordCount][];
+            int extraWords = in.getInt();
+            for (int k = 0; k < extraWords; k++) {
+                int index = in.getInt();
+                extras[index] = new char[in.getShort()];
+                for (int c = 0; c < extras[index].length; c++) extras[index][c] = in.getChar();
+            }
+
+            return new Dictionary(words, lengthBuckets, new SignatureTable(lows, highs, extras), start);
+        } catch (RuntimeException e) {
+            // Truncated or corrupt data shows up as buffer underflow or bad array sizes
+            throw new IOException("Corrupt dictionary snapshot: " + snapshotFileName, e);
+        }
+    }
+
+    /** Returns {length, CRC32} of fileName's bytes. */
+    private static long[] checksum(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new long[] {channel.size(), checksum(bytes)};
+        }
+    }
+
+    /** CRC32 of bytes' remaining content; consumes them. */
+    private static long checksum(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /** Reads a string written by DataOutputStream.writeUTF (modified UTF-8, ASCII for charset names). */
+    private static String readUTF(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xffff];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java DictionarySnapshot <dictionary.txt> [snapshot file]");
+            return;
+        }
+        String textFileName = args[0];
+        String snapshotFileName = args.length > 1 ? args[1] : snapshotFileFor(textFileName);
+
+        compile(textFileName, snapshotFileName);
+
+        Dictionary fromText = Dictionary.load(textFileName);
+        Dictionary fromSnapshot = load(snapshotFileName, textFileName);
+        System.out.printf("Wrote %d words to '%s'.%n", fromText.size(), snapshotFileName);
+        System.out.printf("Text load: %.2f ms, snapshot load: %.2f ms%n",
+                fromText.loadTimeMillis(), fromSnapshot.loadTimeMillis());
+    }
+}
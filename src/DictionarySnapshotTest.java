@@ -0,0 +1,124 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DictionarySnapshotTest {
+    public static void main(String[] args) {
+        DictionarySnapshotTest tester = new DictionarySnapshotTest();
+        tester.runTests();
+    }
+
+    private static final String DICTIONARY = "snapshot_dict.txt";
+    private static final String SNAPSHOT = DictionarySnapshot.snapshotFileFor(DICTIONARY);
+
+    private void runTests() {
+        System.out.println("Running DictionarySnapshot.java tests:");
+        testRoundTrip();
+        testCorruptSnapshot();
+        testTruncatedSnapshot();
+        System.out.println("All DictionarySnapshot.java tests finished.");
+    }
+
+    // Test that a snapshot gives back the words, order and indexes of the text file
+    private void testRoundTrip() {
+        System.out.println("\n testRoundTrip");
+        try {
+            writeDictionary();
+            DictionarySnapshot.compile(DICTIONARY, SNAPSHOT);
+            Dictionary fromSnapshot = DictionarySnapshot.load(SNAPSHOT, DICTIONARY);
+            boolean passed = fromSnapshot != null && sameDictionary(fromSnapshot, Dictionary.load(DICTIONARY));
+            System.out.println(passed ? "testRoundTrip: PASSED" : "testRoundTrip: FAILED");
+        } catch (IOException e) {
+            System.out.println("testRoundTrip: FAILED, " + e.getMessage());
+        } finally {
+            cleanUp();
+        }
+    }
+
+    // Test that a snapshot with a damaged word is rejected and the text file is loaded instead
+    private void testCorruptSnapshot() {
+        System.out.println("\n testCorruptSnapshot");
+        try {
+            writeDictionary();
+            DictionarySnapshot.compile(DICTIONARY, SNAPSHOT);
+            // Turn "zebra" into "zebRa": still well formed, so only the body CRC can tell
+            byte[] bytes = Files.readAllBytes(Paths.get(SNAPSHOT));
+            int at = indexOf(bytes, "zebra".getBytes(StandardCharsets.UTF_16BE));
+            bytes[at + 7] ^= 0x20;
+            Files.write(Paths.get(SNAPSHOT), bytes);
+
+            boolean rejected = false;
+            try {
+                DictionarySnapshot.load(SNAPSHOT, DICTIONARY);
+            } catch (IOException e) {
+                rejected = true;
+            }
+            Dictionary loaded = DictionarySnapshot.loadWithSnapshot(DICTIONARY);
+            boolean passed = rejected && sameDictionary(loaded, Dictionary.load(DICTIONARY));
+            System.out.println(passed ? "testCorruptSnapshot: PASSED" : "testCorruptSnapshot: FAILED");
+        } catch (IOException e) {
+            System.out.println("testCorruptSnapshot: FAILED, " + e.getMessage());
+        } finally {
+            cleanUp();
+        }
+    }
+
+    // Test that a snapshot cut short is rejected and the text file is loaded instead
+    private void testTruncatedSnapshot() {
+        System.out.println("\n testTruncatedSnapshot");
+        try {
+            writeDictionary();
+            DictionarySnapshot.compile(DICTIONARY, SNAPSHOT);
+            try (RandomAccessFile file = new RandomAccessFile(SNAPSHOT, "rw")) {
+                file.setLength(file.length() - 10);
+            }
+            Dictionary loaded = DictionarySnapshot.loadWithSnapshot(DICTIONARY);
+            boolean passed = sameDictionary(loaded, Dictionary.load(DICTIONARY));
+            System.out.println(passed ? "testTruncatedSnapshot: PASSED" : "testTruncatedSnapshot: FAILED");
+        } catch (IOException e) {
+            System.out.println("testTruncatedSnapshot: FAILED, " + e.getMessage());
+        } finally {
+            cleanUp();
+        }
+    }
+
+    // Helper methods
+    private void writeDictionary() throws IOException {
+        Files.write(Paths.get(DICTIONARY), "apple\nape\ncat\ncoat\ndog\nzebra\n".getBytes());
+    }
+
+    private int indexOf(byte[] bytes, byte[] target) {
+        for (int i = 0; i + target.length <= bytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + target.length), target)) return i;
+        }
+        throw new IllegalStateException("Not found in snapshot");
+    }
+
+    private boolean sameDictionary(Dictionary a, Dictionary b) {
+        List<String> wordsA = new ArrayList<>();
+        List<String> wordsB = new ArrayList<>();
+        for (int i = 0; i < a.size(); i++) wordsA.add(a.word(i));
+        for (int i = 0; i < b.size(); i++) wordsB.add(b.word(i));
+        if (!wordsA.equals(wordsB) || a.maxLength() != b.maxLength()) return false;
+        for (int len = 0; len <= a.maxLength(); len++) {
+            if (!Arrays.equals(a.wordsOfLength(len), b.wordsOfLength(len))) return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            CharSignature x = a.signature(i);
+            CharSignature y = b.signature(i);
+            if (x.low() != y.low() || x.high() != y.high() || !Arrays.equals(x.extra(), y.extra())) return false;
+        }
+        return true;
+    }
+
+    private void cleanUp() {
+        new File(DICTIONARY).delete();
+        new File(SNAPSHOT).delete();
+    }
+}
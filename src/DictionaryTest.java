@@ -0,0 +1,60 @@
+import java.util.Arrays;
+import java.util.List;
+
+public class DictionaryTest {
+    public static void main(String[] args) {
+        DictionaryTest tester = new DictionaryTest();
+        tester.runTests();
+    }
+
+    private void runTests() {
+        System.out.println("Running Dictionary.java tests:");
+        testWordsWithPrefix();
+        testPackedWords();
+        System.out.println("All Dictionary.java tests finished.");
+    }
+
+    private Dictionary loadTestDictionary() {
+        try {
+            return Dictionary.load("test_dictionary.txt");
+        } catch (Exception e) {
+            System.out.println("Could not load test_dictionary.txt: " + e.getMessage());
+            return Dictionary.empty();
+        }
+    }
+
+    // Test prefix enumeration: distinct words in sorted order, including a word equal to the prefix
+    private void testWordsWithPrefix() {
+        System.out.println("\n testWordsWithPrefix");
+        Dictionary dictionary = loadTestDictionary();
+
+        List<String> matches = dictionary.wordsWithPrefix("ap");
+        System.out.println("Words starting with 'ap': " + matches);
+        boolean passed = matches.toString().equals("[ape, apple, apply]")
+                && dictionary.wordsWithPrefix("apple").toString().equals("[apple]")
+                && dictionary.wordsWithPrefix("zz").isEmpty();
+        System.out.println(passed ? "testWordsWithPrefix: PASSED" : "testWordsWithPrefix: FAILED");
+    }
+
+    // Test that words read back out of the packed storage intact, and that the hash index finds
+    // each one, duplicates and non-ASCII words included, but nothing else
+    private void testPackedWords() {
+        System.out.println("\n testPackedWords");
+        List<String> words = Arrays.asList("na\u00efve", "a", "chaplain", "zebra", "chaplain", "ab", "ba");
+        Dictionary dictionary = Dictionary.fromWords(words);
+
+        boolean passed = dictionary.size() == words.size();
+        for (int i = 0; i < words.size() && passed; i++) {
+            passed = dictionary.word(i).equals(words.get(i)) && dictionary.contains(words.get(i));
+        }
+        String[] absent = {"", "naive", "chaplai", "chaplains", "zebr", "abc", "b"};
+        for (String word : absent) {
+            if (dictionary.contains(word)) {
+                System.out.println("Found absent word '" + word + "'");
+                passed = false;
+            }
+        }
+        passed = passed && !Dictionary.empty().contains("") && Dictionary.empty().size() == 0;
+        System.out.println(passed ? "testPackedWords: PASSED" : "testPackedWords: FAILED");
+    }
+}
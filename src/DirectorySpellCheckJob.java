@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Spell checks every ".txt" document under a directory tree on a bounded worker pool.
+ * All workers share one loaded dictionary and suggestion cache, and each document gets
+ * its own "_chk.txt" output next to it, named exactly as the interactive checker would.
+ *
+ * Usage: java DirectorySpellCheckJob <dictionary> <directory> [accept|top|report] [--threads N] [--stats]
+ */
+public class DirectorySpellCheckJob {
+
+    private final BatchSpellChecker checker;
+    private final int threads;
+
+    public DirectorySpellCheckJob(BatchSpellChecker checker, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.checker = checker;
+        this.threads = threads;
+    }
+
+    /** Totals for a finished job. */
+    public static final class Summary {
+        private final int files;
+        private final List<String> failures;
+        private final long bytes;
+        private final long words;
+        private final long misspellings;
+        private final long nanos;
+
+        Summary(int files, List<String> failures, long bytes, long words, long misspellings, long nanos) {
+            this.files = files;
+            this.failures = Collections.unmodifiableList(failures);
+            this.bytes = bytes;
+            this.words = words;
+            this.misspellings = misspellings;
+            this.nanos = nanos;
+        }
+
+        public int files() {
+            return files;
+        }
+
+        public int failures() {
+            return failures.size();
+        }
+
+        /** One "path: cause" line per document that could not be checked, in path order. */
+        public List<String> failureMessages() {
+            return failures;
+        }
+
+        public long words() {
+            return words;
+        }
+
+        public long misspellings() {
+            return misspellings;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("%d files (%d failed), %d words, %d misspelled, %.1f MB in %.3f s (%.1f MB/s)",
+                    files, failures.size(), words, misspellings, bytes / 1e6, seconds,
+                    seconds == 0 ? 0 : bytes / 1e6 / seconds);
+        }
+    }
+
+    /** Whether path is a document to check rather than one of the checker's own outputs. */
+    static boolean isDocument(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isRegularFile(path) && name.endsWith(".txt")
+                && !name.endsWith("_chk.txt") && !name.endsWith("_report.txt");
+    }
+
+    /** Checks every document under directory and waits for all of them to finish. */
+    public Summary run(Path directory) throws IOException {
+        long start = System.nanoTime();
+        List<Path> documents;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            documents = paths.filter(DirectorySpellCheckJob::isDocument).sorted().collect(Collectors.toList());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SpellCheckPipeline.Stats>> results = new ArrayList<>();
+            for (Path document : documents) {
+                String input = document.toString();
+                results.add(pool.submit(() -> checker.checkFile(input, SpellChecker.outputFileNameFor(input))));
+            }
+
+            List<String> failures = new ArrayList<>();
+            long bytes = 0;
+            long words = 0;
+            long misspellings = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    SpellCheckPipeline.Stats stats = results.get(i).get();
+                    bytes += stats.bytes();
+                    words += stats.words();
+                    misspellings += stats.misspellings();
+                } catch (ExecutionException e) {
+                    // One unreadable document should not stop the rest of the job
+                    failures.add(documents.get(i) + ": " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while spell checking " + directory, e);
+                }
+            }
+            return new Summary(documents.size(), failures, bytes, words, misspellings, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) {
+        ArrayList<String> positional = new ArrayList<>();
+        boolean printStats = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--stats")) {
+                    printStats = true;
+                } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    positional.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            positional.clear();
+        }
+        if (positional.size() < 2 || positional.size() > 3) {
+            System.err.println("Usage: java DirectorySpellCheckJob <dictionary> <directory> [accept|top|report]"
+                    + " [--threads N] [--stats]");
+            System.exit(2);
+        }
+
+        try {
+            BatchSpellChecker.Policy policy = positional.size() == 3
+                    ? BatchSpellChecker.parsePolicy(positional.get(2)) : BatchSpellChecker.Policy.TOP_SUGGESTION;
+            Dictionary dictionary = DictionarySnapshot.loadWithSnapshot(positional.get(0));
+            DirectorySpellCheckJob job = new DirectorySpellCheckJob(new BatchSpellChecker(dictionary, policy), threads);
+            Summary summary = job.run(Paths.get(positional.get(1)));
+            for (String failure : summary.failureMessages()) {
+                System.err.println(failure);
+            }
+            if (printStats) {
+                System.err.println(summary);
+            }
+            if (summary.failures() > 0) {
+                System.exit(1);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class DirectorySpellCheckJobTest {
+    public static void main(String[] args) {
+        DirectorySpellCheckJobTest tester = new DirectorySpellCheckJobTest();
+        tester.runTests();
+    }
+
+    private void runTests() {
+        System.out.println("Running DirectorySpellCheckJob.java tests:");
+        testCheckDirectory();
+        testFailedDocument();
+        System.out.println("All DirectorySpellCheckJob.java tests finished.");
+    }
+
+    private DirectorySpellCheckJob createJob() {
+        Dictionary dictionary = Dictionary.fromWords(Arrays.asList("the", "cat", "sat", "on", "mat"));
+        return new DirectorySpellCheckJob(new BatchSpellChecker(dictionary, BatchSpellChecker.Policy.TOP_SUGGESTION), 2);
+    }
+
+    // Test that every document in the tree is checked and the checker's own outputs are skipped
+    private void testCheckDirectory() {
+        System.out.println("\n testCheckDirectory");
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("directory_job");
+            writeFile(directory.resolve("a.txt"), "the cat satt");
+            writeFile(directory.resolve("sub/b.txt"), "teh mat");
+            writeFile(directory.resolve("old_chk.txt"), "the cat");
+            writeFile(directory.resolve("old_report.txt"), "2\tsatt\tsat");
+            writeFile(directory.resolve("notes.md"), "satt");
+
+            DirectorySpellCheckJob.Summary summary = createJob().run(directory);
+            System.out.println(summary);
+            boolean passed = summary.files() == 2 && summary.failures() == 0
+                    && summary.words() == 5 && summary.misspellings() == 2
+                    && readFile(directory.resolve("a_chk.txt")).equals("the cat sat")
+                    && readFile(directory.resolve("sub/b_chk.txt")).equals("the mat")
+                    && !Files.exists(directory.resolve("old_chk_chk.txt"))
+                    && !Files.exists(directory.resolve("old_report_chk.txt"));
+            System.out.println(passed ? "testCheckDirectory: PASSED" : "testCheckDirectory: FAILED");
+        } catch (IOException e) {
+            System.out.println("testCheckDirectory: FAILED, " + e.getMessage());
+        } finally {
+            deleteTree(directory);
+        }
+    }
+
+    // Test that a document that cannot be checked is reported with its path and does not stop the others
+    private void testFailedDocument() {
+        System.out.println("\n testFailedDocument");
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("directory_job");
+            writeFile(directory.resolve("a.txt"), "the cat satt");
+            Path unreadable = directory.resolve("b.txt");
+            writeFile(unreadable, "teh mat");
+            unreadable.toFile().setReadable(false);
+            // Permissions do not stop root, so also put a directory where the output has to go
+            Files.createDirectory(directory.resolve("b_chk.txt"));
+
+            DirectorySpellCheckJob.Summary summary = createJob().run(directory);
+            System.out.println(summary.failureMessages());
+            boolean passed = summary.files() == 2 && summary.failures() == 1
+                    && summary.failureMessages().get(0).startsWith(unreadable + ": ")
+                    && readFile(directory.resolve("a_chk.txt")).equals("the cat sat");
+            System.out.println(passed ? "testFailedDocument: PASSED" : "testFailedDocument: FAILED");
+        } catch (IOException e) {
+            System.out.println("testFailedDocument: FAILED, " + e.getMessage());
+        } finally {
+            deleteTree(directory);
+        }
+    }
+
+    // Helper methods
+    private void writeFile(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes());
+    }
+
+    private String readFile(Path path) throws IOException {
+        return new String(Files.readAllBytes(path));
+    }
+
+    private void deleteTree(Path directory) {
+        if (directory == null) return;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            System.out.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative long values (latencies in nanoseconds, candidate
+ * counts) with fixed memory. Values below 32 are counted exactly; above that each power of two
+ * is split into 16 buckets, so a reported percentile is within about 6% of the true value.
+ */
+final class Histogram {
+
+    private static final int EXACT = 32;
+    private static final int SUB_BUCKETS = 16;
+    // Exact buckets, then 16 per power of two from 2^5 up to 2^62
+    private static final int BUCKETS = EXACT + (63 - 5) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketFor(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long sum() {
+        return sum.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum() / n;
+    }
+
+    /** The value at or below which fraction (0 to 1) of the recorded values fall; 0 if empty. */
+    long percentile(double fraction) {
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(upperBound(bucket), max());
+        }
+        return max();
+    }
+
+    private static int bucketFor(long value) {
+        if (value < EXACT) return (int) value;
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - 4;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT + (highestBit - 5) * SUB_BUCKETS + subBucket;
+    }
+
+    /** The largest value that falls into bucket. */
+    private static long upperBound(int bucket) {
+        if (bucket < EXACT) return bucket;
+        int highestBit = (bucket - EXACT) / SUB_BUCKETS + 5;
+        int subBucket = (bucket - EXACT) % SUB_BUCKETS;
+        int shift = highestBit - 4;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
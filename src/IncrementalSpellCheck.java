@@ -0,0 +1,302 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Re-checks a document that was checked before, redoing only the part that changed. Each run
+ * saves the text it checked with every word's offsets and, for misspelled words, the chosen
+ * replacement. The next run finds the longest common prefix and suffix of the old and new
+ * text; words lying wholly inside them keep their earlier result (shifted by the change in
+ * length) and only the words in between are looked up again. A misspelled word that was
+ * already resolved, before or earlier in this run, reuses that decision instead of asking
+ * the resolver again.
+ *
+ * Output is the same as SpellCheckPipeline would write for the new text with those decisions.
+ * Results saved against a different dictionary keep their decisions but every word is re-checked.
+ */
+final class IncrementalSpellCheck {
+
+    private static final int MAGIC = 0x53504353; // "SPCS"
+    private static final int VERSION = 1;
+
+    private IncrementalSpellCheck() {
+    }
+
+    /** The file a document's saved results are kept in: "notes.txt" uses "notes.txt.chkstate". */
+    static String stateFileFor(String inputFileName) {
+        return inputFileName + ".chkstate";
+    }
+
+    /** How much of one run was reused and how much redone. */
+    static final class Stats {
+        private final int words;
+        private final int rechecked;
+        private final int resolved;
+
+        Stats(int words, int rechecked, int resolved) {
+            this.words = words;
+            this.rechecked = rechecked;
+            this.resolved = resolved;
+        }
+
+        int words() {
+            return words;
+        }
+
+        /** Words looked up in the dictionary this run; the rest kept their saved result. */
+        int rechecked() {
+            return rechecked;
+        }
+
+        /** Misspellings handed to the resolver because no earlier decision covered them. */
+        int resolved() {
+            return resolved;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d words, %d re-checked, %d resolved", words, rechecked, resolved);
+        }
+    }
+
+    /**
+     * The checked result of one text: its words' offsets and, for each misspelled word, its
+     * replacement (null for words found in the dictionary).
+     */
+    static final class State {
+        static final State EMPTY = new State("", 0, new int[0], new int[0], new String[0], 0);
+
+        private final String text;
+        private final long dictionaryFingerprint;
+        private final int[] starts;
+        private final int[] ends;
+        private final String[] replacements;
+        private final int size;
+
+        State(String text, long dictionaryFingerprint, int[] starts, int[] ends, String[] replacements, int size) {
+            this.text = text;
+            this.dictionaryFingerprint = dictionaryFingerprint;
+            this.starts = starts;
+            this.ends = ends;
+            this.replacements = replacements;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /** The checked text: whitespace as written, known words lowercased, misspellings replaced. */
+        String output() {
+            StringBuilder out = new StringBuilder(text.length());
+            int pos = 0;
+            for (int i = 0; i < size; i++) {
+                out.append(text, pos, starts[i]);
+                out.append(replacements[i] != null ? replacements[i] : word(i));
+                pos = ends[i];
+            }
+            return out.append(text, pos, text.length()).toString();
+        }
+
+        private String word(int i) {
+            return text.substring(starts[i], ends[i]).toLowerCase();
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dictionaryFingerprint);
+            writeString(out, text);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(starts[i]);
+                out.writeInt(ends[i]);
+            }
+            int misspelled = 0;
+            for (int i = 0; i < size; i++) if (replacements[i] != null) misspelled++;
+            out.writeInt(misspelled);
+            for (int i = 0; i < size; i++) {
+                if (replacements[i] != null) {
+                    out.writeInt(i);
+                    writeString(out, replacements[i]);
+                }
+            }
+        }
+
+        static State read(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a spell-check state file");
+            }
+            long dictionaryFingerprint = in.readLong();
+            String text = readString(in);
+            int size = in.readInt();
+            int[] starts = new int[size];
+            int[] ends = new int[size];
+            for (int i = 0; i < size; i++) {
+                starts[i] = in.readInt();
+                ends[i] = in.readInt();
+                if (starts[i] < (i == 0 ? 0 : ends[i - 1]) || ends[i] <= starts[i] || ends[i] > text.length()) {
+                    throw new IOException("Corrupt spell-check state file");
+                }
+            }
+            String[] replacements = new String[size];
+            int misspelled = in.readInt();
+            for (int k = 0; k < misspelled; k++) {
+                int index = in.readInt();
+                if (index < 0 || index >= size) throw new IOException("Corrupt spell-check state file");
+                replacements[index] = readString(in);
+            }
+            return new State(text, dictionaryFingerprint, starts, ends, replacements, size);
+        }
+
+        private static void writeString(DataOutputStream out, String s) throws IOException {
+            out.writeInt(s.length());
+            out.writeChars(s);
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) throw new IOException("Corrupt spell-check state file");
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) chars[i] = in.readChar();
+            return new String(chars);
+        }
+    }
+
+    /**
+     * Checks inputFileName into outputFileName, reusing the results saved by the previous run
+     * on the same file if there are any, then saves this run's results for the next one.
+     * Reads and writes in the platform charset like SpellCheckPipeline.
+     */
+    static Stats run(String inputFileName, String outputFileName, Dictionary dictionary,
+                     UnaryOperator<String> resolver) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        String text = new String(Files.readAllBytes(Paths.get(inputFileName)), charset);
+        String stateFileName = stateFileFor(inputFileName);
+
+        int[] counts = new int[2];
+        State state = check(text, readState(stateFileName), dictionary, resolver, counts);
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(outputFileName), charset)) {
+            out.write(state.output());
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(stateFileName), 1 << 16))) {
+            state.write(out);
+        }
+        return new Stats(state.size(), counts[0], counts[1]);
+    }
+
+    /** The state saved in fileName, or EMPTY if there is none or it cannot be read. */
+    static State readState(String fileName) {
+        if (!new File(fileName).isFile()) return State.EMPTY;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16))) {
+            return State.read(in);
+        } catch (IOException e) {
+            // Unreadable or stale format - check the whole document again
+            return State.EMPTY;
+        }
+    }
+
+    /**
+     * Checks text, keeping previous's results for the words outside the changed span. Adds the
+     * number of words looked up to counts[0] and of resolver calls to counts[1].
+     */
+    static State check(String text, State previous, Dictionary dictionary, UnaryOperator<String> resolver,
+                       int[] counts) {
+        long fingerprint = dictionary.fingerprint();
+
+        // Earlier decisions, by misspelled word
+        HashMap<String, String> decisions = new HashMap<>();
+        for (int i = 0; i < previous.size; i++) {
+            if (previous.replacements[i] != null) decisions.put(previous.word(i), previous.replacements[i]);
+        }
+        if (previous.dictionaryFingerprint != fingerprint) {
+            previous = State.EMPTY;
+        }
+
+        String old = previous.text;
+        int limit = Math.min(old.length(), text.length());
+        int prefix = 0;
+        while (prefix < limit && old.charAt(prefix) == text.charAt(prefix)) prefix++;
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && old.charAt(old.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix)) {
+            suffix++;
+        }
+        int shift = text.length() - old.length();
+
+        // A word is unchanged if it and the character after it (for prefix words) or before it
+        // (for suffix words) lie in the unchanged text, so it cannot have merged with a neighbour
+        int keptBefore = 0;
+        while (keptBefore < previous.size && previous.ends[keptBefore] < prefix) keptBefore++;
+        int keptAfter = previous.size;
+        while (keptAfter > keptBefore && previous.starts[keptAfter - 1] > old.length() - suffix) keptAfter--;
+
+        int capacity = keptBefore + (previous.size - keptAfter) + 16;
+        int[] starts = Arrays.copyOf(previous.starts, capacity);
+        int[] ends = Arrays.copyOf(previous.ends, capacity);
+        String[] replacements = Arrays.copyOf(previous.replacements, capacity);
+        int size = keptBefore;
+
+        int from = keptBefore == 0 ? 0 : previous.ends[keptBefore - 1];
+        int to = keptAfter == previous.size ? text.length() : previous.starts[keptAfter] + shift;
+        int i = from;
+        while (i < to) {
+            while (i < to && Character.isWhitespace(text.charAt(i))) i++;
+            int start = i;
+            while (i < to && !Character.isWhitespace(text.charAt(i))) i++;
+            if (i == start) break;
+
+            String word = text.substring(start, i).toLowerCase();
+            String replacement = null;
+            counts[0]++;
+            if (!dictionary.contains(word)) {
+                replacement = decisions.get(word);
+                if (replacement == null) {
+                    replacement = resolver.apply(word);
+                    decisions.put(word, replacement);
+                    counts[1]++;
+                }
+            }
+
+            if (size == starts.length) {
+                int grown = size * 2;
+                starts = Arrays.copyOf(starts, grown);
+                ends = Arrays.copyOf(ends, grown);
+                replacements = Arrays.copyOf(replacements, grown);
+            }
+            starts[size] = start;
+            ends[size] = i;
+            replacements[size] = replacement;
+            size++;
+        }
+
+        int total = size + previous.size - keptAfter;
+        if (total > starts.length) {
+            starts = Arrays.copyOf(starts, total);
+            ends = Arrays.copyOf(ends, total);
+            replacements = Arrays.copyOf(replacements, total);
+        }
+        for (int k = keptAfter; k < previous.size; k++) {
+            starts[size] = previous.starts[k] + shift;
+            ends[size] = previous.ends[k] + shift;
+            replacements[size] = previous.replacements[k];
+            size++;
+        }
+        return new State(text, fingerprint, starts, ends, replacements, size);
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+public class IncrementalSpellCheckTest {
+    public static void main(String[] args) {
+        IncrementalSpellCheckTest tester = new IncrementalSpellCheckTest();
+        tester.runTests();
+    }
+
+    private void runTests() {
+        System.out.println("Running IncrementalSpellCheck.java tests:");
+        testMatchesFullCheck();
+        testWorkFollowsEdit();
+        testSavedState();
+        System.out.println("All IncrementalSpellCheck.java tests finished.");
+    }
+
+    private final Dictionary dictionary = Dictionary.fromWords(Arrays.asList("the", "cat", "sat", "on", "mat", "a", "dog"));
+
+    // Replaces a misspelling with its uppercase form, so replacements show up in the output
+    private final UnaryOperator<String> upperCase = String::toUpperCase;
+
+    // Test that after each of a series of random edits the output matches a full pipeline run
+    private void testMatchesFullCheck() {
+        System.out.println("\n testMatchesFullCheck");
+        Random random = new Random(5);
+        String[] pieces = {"the", "Cat", "satt", "on", "mat", "dgo", "a", " ", "  ", "\n", "\t", "x"};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) text.append(pieces[random.nextInt(pieces.length)]).append(' ');
+
+        IncrementalSpellCheck.State state = IncrementalSpellCheck.State.EMPTY;
+        int wrong = 0;
+        for (int edit = 0; edit < 300; edit++) {
+            int at = random.nextInt(text.length() + 1);
+            int end = Math.min(text.length(), at + random.nextInt(6));
+            text.replace(at, end, random.nextBoolean() ? pieces[random.nextInt(pieces.length)] : "");
+
+            state = IncrementalSpellCheck.check(text.toString(), state, dictionary, upperCase, new int[2]);
+            if (!state.output().equals(fullCheck(text.toString()))) wrong++;
+        }
+        System.out.println("300 edits, " + wrong + " wrong outputs");
+        System.out.println(wrong == 0 ? "testMatchesFullCheck: PASSED" : "testMatchesFullCheck: FAILED");
+    }
+
+    // Test that a one-word edit in a long document re-checks only the words around it, and only
+    // asks about a misspelling that was never decided before
+    private void testWorkFollowsEdit() {
+        System.out.println("\n testWorkFollowsEdit");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) text.append(i % 50 == 0 ? "teh " : "the cat sat on the mat\n");
+        IncrementalSpellCheck.State state = IncrementalSpellCheck.check(text.toString(),
+                IncrementalSpellCheck.State.EMPTY, dictionary, upperCase, new int[2]);
+
+        int middle = text.indexOf("sat", text.length() / 2);
+        text.replace(middle, middle + 3, "sta");
+        int[] counts = new int[2];
+        state = IncrementalSpellCheck.check(text.toString(), state, dictionary, upperCase, counts);
+        System.out.println(state.size() + " words, " + counts[0] + " re-checked, " + counts[1] + " resolved");
+
+        int[] again = new int[2];
+        text.replace(middle, middle + 3, "teh");
+        state = IncrementalSpellCheck.check(text.toString(), state, dictionary, word -> "WRONG", again);
+        boolean passed = counts[0] <= 3 && counts[1] == 1 && again[1] == 0 && state.output().contains("cat TEH on");
+        System.out.println(passed ? "testWorkFollowsEdit: PASSED" : "testWorkFollowsEdit: FAILED");
+    }
+
+    // Test that results survive in the state file, and that a different dictionary re-checks every
+    // word while keeping earlier decisions
+    private void testSavedState() {
+        System.out.println("\n testSavedState");
+        String input = "incremental_input.txt";
+        String output = "incremental_output.txt";
+        try {
+            writeFile(input, "the catt sat\non teh mat");
+            IncrementalSpellCheck.Stats first = IncrementalSpellCheck.run(input, output, dictionary, upperCase);
+            String firstOutput = readFile(output);
+
+            writeFile(input, "the catt sat\non teh mat dgo");
+            IncrementalSpellCheck.Stats second = IncrementalSpellCheck.run(input, output, dictionary, upperCase);
+            String secondOutput = readFile(output);
+
+            Dictionary larger = Dictionary.fromWords(Arrays.asList("the", "cat", "sat", "on", "mat", "teh"));
+            IncrementalSpellCheck.Stats third = IncrementalSpellCheck.run(input, output, larger, word -> "WRONG");
+            String thirdOutput = readFile(output);
+
+            System.out.println(first + " / " + second + " / " + third);
+            System.out.println(thirdOutput.replace('\n', '|'));
+            boolean passed = firstOutput.equals("the CATT sat\non TEH mat")
+                    && second.rechecked() == 2 && second.resolved() == 1
+                    && secondOutput.equals("the CATT sat\non TEH mat DGO")
+                    && third.rechecked() == 7 && third.resolved() == 0
+                    && thirdOutput.equals("the CATT sat\non teh mat DGO");
+            System.out.println(passed ? "testSavedState: PASSED" : "testSavedState: FAILED");
+        } catch (IOException e) {
+            System.out.println("testSavedState: FAILED, " + e.getMessage());
+        } finally {
+            new File(input).delete();
+            new File(output).delete();
+            new File(IncrementalSpellCheck.stateFileFor(input)).delete();
+        }
+    }
+
+    // Helper methods
+    private String fullCheck(String text) {
+        try {
+            StringWriter out = new StringWriter();
+            SpellCheckPipeline.run(new StringReader(text), out, dictionary, upperCase);
+            return out.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeFile(String fileName, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.write(content);
+        }
+    }
+
+    private String readFile(String fileName) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(fileName)));
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Every dictionary word's CharSignature packed into parallel primitive arrays, so the overlap
+ * filter reads two longs per candidate instead of dereferencing a signature object.
+ */
+final class SignatureTable {
+
+    private final long[] lows;
+    private final long[] highs;
+    private final char[][] extras; // null for words with no non-ASCII characters
+
+    /** Wraps stored parts, e.g. read back from a DictionarySnapshot. */
+    SignatureTable(long[] lows, long[] highs, char[][] extras) {
+        this.lows = lows;
+        this.highs = highs;
+        this.extras = extras;
+    }
+
+    static SignatureTable of(WordArena words) {
+        int size = words.size();
+        long[] lows = new long[size];
+        long[] highs = new long[size];
+        char[][] extras = new char[size][];
+        for (int i = 0; i < size; i++) {
+            CharSignature signature = CharSignature.of(words.chars(), words.start(i), words.length(i));
+            lows[i] = signature.low();
+            highs[i] = signature.high();
+            if (signature.extra().length > 0) extras[i] = signature.extra();
+        }
+        return new SignatureTable(lows, highs, extras);
+    }
+
+    /** Word index's signature as an object. */
+    CharSignature get(int index) {
+        return CharSignature.fromParts(lows[index], highs[index], extras[index]);
+    }
+
+    /**
+     * Whether the distinct characters query and word index share, divided by the distinct
+     * characters of both together, reach threshold (1.0 when both are empty), computed from
+     * the packed arrays. A
+     * non-positive threshold is met by any word, so the intersection is not computed at all.
+     */
+    boolean overlapAtLeast(CharSignature query, int index, double threshold) {
+        if (threshold <= 0) return true;
+        long low = lows[index];
+        long high = highs[index];
+        char[] extra = extras[index];
+
+        int inter = Long.bitCount(query.low() & low) + Long.bitCount(query.high() & high);
+        int size = Long.bitCount(low) + Long.bitCount(high);
+        if (extra != null) {
+            inter += CharSignature.sharedCount(query.extra(), extra);
+            size += extra.length;
+        }
+        int union = query.size() + size - inter;
+        double overlap = union == 0 ? 1.0 : (double) inter / union;
+        return overlap >= threshold;
+    }
+}
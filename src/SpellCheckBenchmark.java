@@ -0,0 +1,312 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Micro-benchmarks for the paths a spell-check run spends its time in: loading the dictionary,
+ * contains() lookups, getWordSuggestions over a corpus of misspellings at several settings, and
+ * the edit-distance engine (building its index, and getEditDistanceSuggestions).
+ * Each benchmark is warmed up, then timed over fixed-length iterations and reported as
+ * throughput (mean and standard deviation across iterations) and bytes allocated per operation.
+ *
+ * Usage: java SpellCheckBenchmark [dictionary] [--corpus file] [--filter text] [--warmup N]
+ *                                 [--iterations N] [--millis N] [--csv]
+ * Without --corpus the misspellings are generated from the dictionary with a fixed seed, so
+ * runs are comparable. --csv prints one machine-readable line per benchmark for gating.
+ */
+public class SpellCheckBenchmark {
+
+    /** One benchmarked operation; the returned value is consumed so the JIT cannot drop the work. */
+    interface Operation {
+        long run() throws Exception;
+    }
+
+    /** The measurements for one benchmark. */
+    static final class Result {
+        final String name;
+        final double opsPerSecond;
+        final double opsPerSecondError;
+        final double bytesPerOp;
+
+        Result(String name, double opsPerSecond, double opsPerSecondError, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.opsPerSecondError = opsPerSecondError;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            String allocation = bytesPerOp < 0 ? "n/a" : String.format(Locale.ROOT, "%.0f B/op", bytesPerOp);
+            return String.format(Locale.ROOT, "%-40s %14.1f +- %10.1f ops/s  %14s", name, opsPerSecond, opsPerSecondError, allocation);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%.3f,%.3f,%.1f", name, opsPerSecond, opsPerSecondError, bytesPerOp);
+        }
+    }
+
+    // {tolerance, commonPercent, topN}; the first row is what SpellChecker uses
+    private static final double[][] SUGGESTION_SETTINGS = {
+            {SpellChecker.SUGGESTION_TOLERANCE, SpellChecker.SUGGESTION_COMMON_PERCENT, SpellChecker.SUGGESTION_COUNT},
+            {1, 0.5, 4},
+            {2, 0.3, 10},
+            {3, 0.7, 4},
+    };
+
+    private static final int CORPUS_SIZE = 1000;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private long sink;
+
+    SpellCheckBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /** Warms op up, then runs it for the configured iterations and reports its throughput and allocation. */
+    Result measure(String name, Operation op) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(op);
+        }
+
+        com.sun.management.ThreadMXBean threads = allocationBean();
+        long threadId = Thread.currentThread().getId();
+        double[] throughput = new double[measurementIterations];
+        long totalOps = 0;
+        long allocatedBefore = threads == null ? 0 : threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            long ops = runIteration(op);
+            throughput[i] = ops / ((System.nanoTime() - start) / 1e9);
+            totalOps += ops;
+        }
+        double bytesPerOp = threads == null ? -1
+                : (double) (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / totalOps;
+
+        double mean = 0;
+        for (double value : throughput) mean += value;
+        mean /= throughput.length;
+        double variance = 0;
+        for (double value : throughput) variance += (value - mean) * (value - mean);
+        double error = throughput.length > 1 ? Math.sqrt(variance / (throughput.length - 1)) : 0;
+        return new Result(name, mean, error, bytesPerOp);
+    }
+
+    /** Runs op repeatedly for one iteration's worth of time and returns how many times it ran. */
+    private long runIteration(Operation op) throws Exception {
+        long deadline = System.nanoTime() + iterationNanos;
+        long ops = 0;
+        do {
+            sink += op.run();
+            ops++;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    /** The HotSpot bean that reports per-thread allocation, or null on JVMs without it. */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    /**
+     * A reproducible list of misspellings: dictionary words of three or more letters, each given
+     * one typical typing error (substitution, deletion, insertion, transposition or doubling).
+     * Throws IllegalArgumentException if the dictionary has no such words.
+     */
+    static List<String> generateMisspellings(Dictionary dictionary, int count, long seed) {
+        int[] eligible = new int[dictionary.size()];
+        int eligibleCount = 0;
+        for (int i = 0; i < dictionary.size(); i++) {
+            if (dictionary.word(i).length() >= 3) eligible[eligibleCount++] = i;
+        }
+        if (eligibleCount == 0) {
+            throw new IllegalArgumentException("Dictionary has no words of three or more letters to misspell");
+        }
+
+        Random random = new Random(seed);
+        List<String> corpus = new ArrayList<>();
+        while (corpus.size() < count) {
+            String word = dictionary.word(eligible[random.nextInt(eligibleCount)]);
+
+            StringBuilder typo = new StringBuilder(word);
+            int at = random.nextInt(word.length() - 1);
+            char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(5)) {
+                case 0:
+                    typo.setCharAt(at, letter);
+                    break;
+                case 1:
+                    typo.deleteCharAt(at);
+                    break;
+                case 2:
+                    typo.insert(at, letter);
+                    break;
+                case 3:
+                    typo.setCharAt(at, word.charAt(at + 1));
+                    typo.setCharAt(at + 1, word.charAt(at));
+                    break;
+                default:
+                    typo.insert(at, word.charAt(at));
+                    break;
+            }
+            String misspelling = typo.toString();
+            if (!dictionary.contains(misspelling)) corpus.add(misspelling);
+        }
+        return corpus;
+    }
+
+    /** The benchmarks whose names contain filter, in a fixed order. */
+    List<Result> runAll(String dictionaryFile, List<String> corpus, String filter) throws Exception {
+        Dictionary dictionary = Dictionary.load(dictionaryFile);
+        if (corpus == null) corpus = generateMisspellings(dictionary, CORPUS_SIZE, 42);
+        List<String> misspellings = corpus;
+        WordRecommender recommender = new WordRecommender(dictionary);
+
+        List<Result> results = new ArrayList<>();
+        if ("load.text".contains(filter)) {
+            results.add(measure("load.text", () -> Dictionary.load(dictionaryFile).size()));
+        }
+        if ("load.snapshot".contains(filter)) {
+            // A temporary snapshot, so the benchmark never replaces the one next to the dictionary
+            Path snapshot = Files.createTempFile("benchmark", ".snap");
+            try {
+                String snapshotFile = snapshot.toString();
+                DictionarySnapshot.compile(dictionaryFile, snapshotFile);
+                results.add(measure("load.snapshot", () -> DictionarySnapshot.load(snapshotFile, dictionaryFile).size()));
+            } finally {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        if ("contains.hit".contains(filter)) {
+            // Materialised up front so the measurement covers only the lookup
+            List<String> words = new ArrayList<>();
+            for (int i = 0; i < dictionary.size(); i++) words.add(dictionary.word(i));
+            int[] next = {0};
+            results.add(measure("contains.hit", () -> {
+                next[0] = (next[0] + 1) % words.size();
+                return dictionary.contains(words.get(next[0])) ? 1 : 0;
+            }));
+        }
+        if ("contains.miss".contains(filter)) {
+            int[] next = {0};
+            results.add(measure("contains.miss", () -> {
+                next[0] = (next[0] + 1) % misspellings.size();
+                return dictionary.contains(misspellings.get(next[0])) ? 1 : 0;
+            }));
+        }
+        for (double[] setting : SUGGESTION_SETTINGS) {
+            int tolerance = (int) setting[0];
+            double commonPercent = setting[1];
+            int topN = (int) setting[2];
+            String name = String.format(Locale.ROOT, "suggest(tol=%d,cp=%.1f,top=%d)", tolerance, commonPercent, topN);
+            if (!name.contains(filter)) continue;
+
+            int[] next = {0};
+            results.add(measure(name, () -> {
+                next[0] = (next[0] + 1) % misspellings.size();
+                return recommender.getWordSuggestions(misspellings.get(next[0]), tolerance, commonPercent, topN).size();
+            }));
+        }
+        if ("index.edit".contains(filter)) {
+            results.add(measure("index.edit", () -> DeletionIndex.build(dictionary,
+                    SpellChecker.SUGGESTION_EDIT_DISTANCE).keyCount()));
+        }
+        WordRecommender editRecommender = null;
+        for (int maxDistance = 1; maxDistance <= SpellChecker.SUGGESTION_EDIT_DISTANCE; maxDistance++) {
+            int distance = maxDistance;
+            String name = String.format(Locale.ROOT, "edit(dist=%d,top=%d)", distance, SpellChecker.SUGGESTION_COUNT);
+            if (!name.contains(filter)) continue;
+
+            if (editRecommender == null) {
+                editRecommender = recommender.withEditDistanceIndex(SpellChecker.SUGGESTION_EDIT_DISTANCE);
+            }
+            WordRecommender engine = editRecommender;
+            int[] next = {0};
+            results.add(measure(name, () -> {
+                next[0] = (next[0] + 1) % misspellings.size();
+                return engine.getEditDistanceSuggestions(misspellings.get(next[0]), distance,
+                        SpellChecker.SUGGESTION_COUNT).size();
+            }));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) {
+        String dictionaryFile = "engDictionary.txt";
+        String corpusFile = null;
+        String filter = "";
+        int warmup = 3;
+        int iterations = 5;
+        long millis = 1000;
+        boolean csv = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--csv")) {
+                    csv = true;
+                } else if (args[i].startsWith("--") && i + 1 < args.length) {
+                    String value = args[++i];
+                    switch (args[i - 1]) {
+                        case "--corpus":
+                            corpusFile = value;
+                            break;
+                        case "--filter":
+                            filter = value;
+                            break;
+                        case "--warmup":
+                            warmup = Integer.parseInt(value);
+                            break;
+                        case "--iterations":
+                            iterations = Integer.parseInt(value);
+                            break;
+                        case "--millis":
+                            millis = Long.parseLong(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                    }
+                } else {
+                    dictionaryFile = args[i];
+                }
+            }
+            if (warmup < 0 || iterations < 1 || millis < 1) {
+                throw new IllegalArgumentException("Warmup must be >= 0, iterations and millis >= 1");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java SpellCheckBenchmark [dictionary] [--corpus file] [--filter text]"
+                    + " [--warmup N] [--iterations N] [--millis N] [--csv]");
+            System.exit(2);
+        }
+
+        try {
+            List<String> corpus = corpusFile == null ? null : DictionaryLoader.readWords(corpusFile);
+            if (corpus != null && corpus.isEmpty()) {
+                throw new IOException("Corpus file '" + corpusFile + "' has no words");
+            }
+            SpellCheckBenchmark benchmark = new SpellCheckBenchmark(warmup, iterations, millis);
+            List<Result> results = benchmark.runAll(dictionaryFile, corpus, filter);
+            if (csv) System.out.println("benchmark,ops_per_s,ops_per_s_error,bytes_per_op");
+            for (Result result : results) {
+                System.out.println(csv ? result.toCsv() : result.toString());
+            }
+            // Keep every operation's result live
+            if (benchmark.sink == 42) System.err.println();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
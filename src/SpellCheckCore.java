@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The spell-checking logic without any console or file I/O: word checks, suggestions and
+ * whole-text checks over one loaded dictionary. Instances are immutable and safe to share
+ * between threads; the dictionary and recommender are read without locking, and the only
+ * shared mutable state is the optional suggestion cache, which holds its lock just for a map
+ * lookup or insert, never while searching.
+ */
+public final class SpellCheckCore {
+
+    /** One misspelled word found in a text, with where it is and what to replace it with. */
+    public static final class Misspelling {
+        private final String word;
+        private final int start;
+        private final int end;
+        private final List<String> suggestions;
+
+        Misspelling(String word, int start, int end, List<String> suggestions) {
+            this.word = word;
+            this.start = start;
+            this.end = end;
+            this.suggestions = suggestions;
+        }
+
+        /** The word as checked, lowercased. */
+        public String word() {
+            return word;
+        }
+
+        /** Index of the word's first character in the checked text. */
+        public int start() {
+            return start;
+        }
+
+        /** Index just past the word's last character in the checked text. */
+        public int end() {
+            return end;
+        }
+
+        public List<String> suggestions() {
+            return suggestions;
+        }
+
+        @Override
+        public String toString() {
+            return word + "@" + start + suggestions;
+        }
+    }
+
+    /** Which search produces suggestions. */
+    public enum Engine {
+        /** WordRecommender.getWordSuggestions: most similar words of about the same length and letters. */
+        SIMILARITY,
+        /**
+         * WordRecommender.getEditDistanceSuggestions: words within SUGGESTION_EDIT_DISTANCE edits,
+         * fewest edits first. Its index is built when the core is created.
+         */
+        EDIT_DISTANCE;
+
+        /** "similarity" or "edit", in any case. */
+        public static Engine parse(String name) {
+            switch (name.toLowerCase()) {
+                case "similarity":
+                    return SIMILARITY;
+                case "edit":
+                    return EDIT_DISTANCE;
+                default:
+                    throw new IllegalArgumentException("Unknown engine '" + name + "', expected similarity or edit");
+            }
+        }
+    }
+
+    private final Dictionary dictionary;
+    private final WordRecommender recommender;
+    private final SuggestionCache suggestionCache; // null to search every time
+    private final Engine engine;
+
+    /** A core with a default-sized suggestion cache. */
+    public SpellCheckCore(Dictionary dictionary) {
+        this(dictionary, new SuggestionCache(new WordRecommender(dictionary)));
+    }
+
+    /** A core that answers suggestions through suggestionCache, or straight from a new recommender if it is null. */
+    public SpellCheckCore(Dictionary dictionary, SuggestionCache suggestionCache) {
+        this(dictionary, suggestionCache, Engine.SIMILARITY);
+    }
+
+    /**
+     * A core whose suggestions come from engine. The edit-distance engine builds its index here
+     * and searches it directly: its lookups are cheaper than a cache miss would save, so
+     * suggestionCache only serves the similarity engine, though its recommender is still used.
+     */
+    public SpellCheckCore(Dictionary dictionary, SuggestionCache suggestionCache, Engine engine) {
+        this.dictionary = dictionary;
+        this.engine = engine;
+        WordRecommender base = suggestionCache != null
+                ? suggestionCache.getRecommender() : new WordRecommender(dictionary);
+        if (engine == Engine.EDIT_DISTANCE) {
+            this.suggestionCache = null;
+            this.recommender = base.withEditDistanceIndex(SpellChecker.SUGGESTION_EDIT_DISTANCE);
+        } else {
+            this.suggestionCache = suggestionCache;
+            this.recommender = base;
+        }
+    }
+
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /** Whether word, lowercased, is in the dictionary. */
+    public boolean isCorrect(String word) {
+        return dictionary.contains(word.toLowerCase());
+    }
+
+    /** Suggestions for a misspelled word with the checker's standard settings, best first. */
+    public List<String> suggestions(String word) {
+        return Collections.unmodifiableList(search(word.toLowerCase()));
+    }
+
+    /**
+     * Suggestions for each distinct word of words, computed in parallel when parallel is true.
+     * The keys are the words as given.
+     */
+    public Map<String, List<String>> suggestionsForAll(Collection<String> words, boolean parallel) {
+        Stream<String> stream = parallel ? words.parallelStream() : words.stream();
+        return stream.distinct().collect(Collectors.toConcurrentMap(word -> word, this::suggestions));
+    }
+
+    /**
+     * The misspelled words of text in order of appearance, each with its suggestions. Words are
+     * split on whitespace exactly as the file checkers split them.
+     */
+    public List<Misspelling> check(String text) {
+        List<Misspelling> misspellings = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) i++;
+            int start = i;
+            while (i < text.length() && !Character.isWhitespace(text.charAt(i))) i++;
+            if (i > start) {
+                String word = text.substring(start, i).toLowerCase();
+                if (!dictionary.contains(word)) {
+                    misspellings.add(new Misspelling(word, start, i, Collections.unmodifiableList(search(word))));
+                }
+            }
+        }
+        return misspellings;
+    }
+
+    private ArrayList<String> search(String lowercased) {
+        if (engine == Engine.EDIT_DISTANCE) {
+            return recommender.getEditDistanceSuggestions(lowercased, SpellChecker.SUGGESTION_EDIT_DISTANCE,
+                    SpellChecker.SUGGESTION_COUNT);
+        }
+        if (suggestionCache != null) {
+            return suggestionCache.getWordSuggestions(lowercased, SpellChecker.SUGGESTION_TOLERANCE,
+                    SpellChecker.SUGGESTION_COMMON_PERCENT, SpellChecker.SUGGESTION_COUNT);
+        }
+        return recommender.getWordSuggestions(lowercased, SpellChecker.SUGGESTION_TOLERANCE,
+                SpellChecker.SUGGESTION_COMMON_PERCENT, SpellChecker.SUGGESTION_COUNT);
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SpellCheckCoreTest {
+    public static void main(String[] args) {
+        SpellCheckCoreTest tester = new SpellCheckCoreTest();
+        tester.runTests();
+    }
+
+    private void runTests() {
+        System.out.println("Running SpellCheckCore.java tests:");
+        testCheckText();
+        testEditDistanceEngine();
+        testConcurrentQueries();
+        System.out.println("All SpellCheckCore.java tests finished.");
+    }
+
+    private Dictionary loadTestDictionary() {
+        try {
+            return Dictionary.load("test_dictionary.txt");
+        } catch (Exception e) {
+            System.out.println("Could not load test_dictionary.txt: " + e.getMessage());
+            return Dictionary.empty();
+        }
+    }
+
+    // Test that check finds each misspelling with its position and suggestions, ignoring case and spacing
+    private void testCheckText() {
+        System.out.println("\n testCheckText");
+        SpellCheckCore core = new SpellCheckCore(loadTestDictionary());
+
+        List<SpellCheckCore.Misspelling> misspellings = core.check("  Cat\tgoat coatt\n\nDog aple");
+        System.out.println("Misspellings: " + misspellings);
+        boolean passed = misspellings.size() == 2
+                && misspellings.get(0).word().equals("coatt") && misspellings.get(0).start() == 11
+                && misspellings.get(0).end() == 16 && misspellings.get(0).suggestions().get(0).equals("coat")
+                && misspellings.get(1).word().equals("aple") && misspellings.get(1).start() == 22
+                && core.isCorrect("CAT") && !core.isCorrect("cattt");
+        System.out.println(passed ? "testCheckText: PASSED" : "testCheckText: FAILED");
+    }
+
+    // Test that the edit-distance engine suggests the words fewest edits away, ties in dictionary order
+    private void testEditDistanceEngine() {
+        System.out.println("\n testEditDistanceEngine");
+        SpellCheckCore core = new SpellCheckCore(loadTestDictionary(), null, SpellCheckCore.Engine.EDIT_DISTANCE);
+
+        List<SpellCheckCore.Misspelling> misspellings = core.check("caot dgo aple");
+        System.out.println("Misspellings: " + misspellings);
+        boolean passed = core.getEngine() == SpellCheckCore.Engine.EDIT_DISTANCE && misspellings.size() == 3
+                && misspellings.get(0).suggestions().toString().equals("[coat, cat, boat, goat]")
+                && misspellings.get(1).suggestions().toString().equals("[dog]")
+                && misspellings.get(2).suggestions().toString().equals("[apple, ape, apply]")
+                && SpellCheckCore.Engine.parse("Edit") == SpellCheckCore.Engine.EDIT_DISTANCE;
+        System.out.println(passed ? "testEditDistanceEngine: PASSED" : "testEditDistanceEngine: FAILED");
+    }
+
+    // Stress test: many threads sharing one core, a tiny cache that keeps evicting, and a recommender
+    // that splits every search, must all get exactly the answers a single thread gets
+    private void testConcurrentQueries() {
+        System.out.println("\n testConcurrentQueries");
+        Random random = new Random(11);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            words.add(randomWord(random, 3 + random.nextInt(8)));
+        }
+        Dictionary dictionary = Dictionary.fromWords(words);
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            queries.add(i % 4 == 0 ? word : word + (char) ('a' + random.nextInt(26)));
+        }
+
+        // Expected answers, computed on this thread without any cache
+        SpellCheckCore reference = new SpellCheckCore(dictionary, null);
+        HashMap<String, List<String>> expectedSuggestions = new HashMap<>();
+        HashMap<String, List<String>> expectedEdits = new HashMap<>();
+        SpellCheckCore editReference = new SpellCheckCore(dictionary, null, SpellCheckCore.Engine.EDIT_DISTANCE);
+        for (String query : queries) {
+            expectedSuggestions.put(query, reference.suggestions(query));
+            expectedEdits.put(query, editReference.suggestions(query));
+        }
+
+        WordRecommender shared = new WordRecommender(dictionary).withParallelThreshold(0);
+        SpellCheckCore core = new SpellCheckCore(dictionary, new SuggestionCache(shared, 8));
+        SpellCheckCore editCore = new SpellCheckCore(dictionary, new SuggestionCache(shared, 8),
+                SpellCheckCore.Engine.EDIT_DISTANCE);
+        int threads = 8;
+        int rounds = 300;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            results.add(pool.submit(() -> {
+                Random order = new Random(seed);
+                int failures = 0;
+                startGate.await();
+                for (int i = 0; i < rounds; i++) {
+                    String query = queries.get(order.nextInt(queries.size()));
+                    if (core.isCorrect(query) != dictionary.contains(query)) failures++;
+                    if (!core.suggestions(query).equals(expectedSuggestions.get(query))) failures++;
+                    if (!editCore.suggestions(query).equals(expectedEdits.get(query))) failures++;
+                }
+                return failures;
+            }));
+        }
+
+        int failures = 0;
+        try {
+            startGate.countDown();
+            for (Future<Integer> result : results) {
+                failures += result.get(60, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            System.out.println("Worker failed: " + e);
+            failures++;
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println(threads + " threads x " + rounds + " rounds, " + failures + " wrong answers");
+        System.out.println(failures == 0 ? "testConcurrentQueries: PASSED" : "testConcurrentQueries: FAILED");
+    }
+
+    private String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
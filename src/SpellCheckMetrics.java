@@ -0,0 +1,163 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and latency histograms for the stages of a spell-check run, safe to record into from
+ * any number of threads. Collection is opt-in: components hold a null SpellCheckMetrics unless
+ * it is switched on, and skip all timing when they do.
+ *
+ * Switched on for SpellChecker with -Dspellchecker.metrics=true, which prints a summary to
+ * standard error at the end of the run, and/or -Dspellchecker.metrics.file=path, which writes
+ * the same figures there as JSON.
+ */
+public final class SpellCheckMetrics {
+
+    /** The timed stages of a run. */
+    public enum Stage {
+        /** Loading the dictionary, once per run. */
+        LOAD("load"),
+        /** Splitting each read chunk into words and copying whitespace, excluding the lookups. */
+        TOKENIZE("tokenize"),
+        /** Lowercasing one word and looking it up in the dictionary. */
+        LOOKUP("lookup"),
+        /** One WordRecommender.getWordSuggestions search. */
+        SUGGEST("suggest");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    private final EnumMap<Stage, Histogram> latencies = new EnumMap<>(Stage.class);
+    // Per suggestion search: words within the length tolerance, and those scored in full (passing the
+    // overlap filter and not pruned early against the current top N)
+    private final Histogram candidates = new Histogram();
+    private final Histogram scored = new Histogram();
+    private final LongAdder words = new LongAdder();
+    private final LongAdder wordNanos = new LongAdder();
+    private final String exportFileName;
+    private final boolean printSummary;
+
+    public SpellCheckMetrics() {
+        this(true, null);
+    }
+
+    private SpellCheckMetrics(boolean printSummary, String exportFileName) {
+        this.printSummary = printSummary;
+        this.exportFileName = exportFileName;
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, new Histogram());
+        }
+    }
+
+    /** Metrics configured from the spellchecker.metrics properties, or null when they are off. */
+    static SpellCheckMetrics fromSystemProperties() {
+        boolean printSummary = Boolean.getBoolean("spellchecker.metrics");
+        String exportFileName = System.getProperty("spellchecker.metrics.file");
+        if (!printSummary && exportFileName == null) return null;
+        return new SpellCheckMetrics(printSummary, exportFileName);
+    }
+
+    void recordLatency(Stage stage, long nanos) {
+        latencies.get(stage).record(nanos);
+    }
+
+    /** Records one suggestion search and how many words it considered and scored. */
+    void recordSuggestion(long nanos, long candidateCount, long scoredCount) {
+        latencies.get(Stage.SUGGEST).record(nanos);
+        candidates.record(candidateCount);
+        scored.record(scoredCount);
+    }
+
+    /** Records words checked in nanos of processing time, not counting time spent resolving misspellings. */
+    void recordWords(long count, long nanos) {
+        words.add(count);
+        wordNanos.add(nanos);
+    }
+
+    public long wordCount() {
+        return words.sum();
+    }
+
+    public double wordsPerSecond() {
+        long nanos = wordNanos.sum();
+        return nanos == 0 ? 0 : words.sum() / (nanos / 1e9);
+    }
+
+    Histogram latency(Stage stage) {
+        return latencies.get(stage);
+    }
+
+    /** A human-readable table of every stage. */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-22s %10s %12s %12s %12s %12s%n", "stage", "count", "mean", "p50", "p99", "max"));
+        for (Map.Entry<Stage, Histogram> stage : latencies.entrySet()) {
+            Histogram h = stage.getValue();
+            summary.append(String.format("%-22s %10d %12s %12s %12s %12s%n", stage.getKey().label, h.count(),
+                    formatNanos(h.mean()), formatNanos(h.percentile(0.5)), formatNanos(h.percentile(0.99)),
+                    formatNanos(h.max())));
+        }
+        appendCountRow(summary, "suggest candidates", candidates);
+        appendCountRow(summary, "suggest scored", scored);
+        summary.append(String.format("%d words checked, %.0f words/s%n", wordCount(), wordsPerSecond()));
+        return summary.toString();
+    }
+
+    /** The same figures as summary, as a JSON object with nanosecond latencies. */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"stages\":{");
+        boolean first = true;
+        for (Map.Entry<Stage, Histogram> stage : latencies.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append('"').append(stage.getKey().label).append("\":");
+            appendJson(json, stage.getValue());
+        }
+        json.append("},\"suggest_candidates\":");
+        appendJson(json, candidates);
+        json.append(",\"suggest_scored\":");
+        appendJson(json, scored);
+        json.append(String.format(Locale.ROOT, ",\"words\":%d,\"words_per_second\":%.1f}", wordCount(), wordsPerSecond()));
+        return json.toString();
+    }
+
+    /** Prints the summary and/or writes the JSON export, as configured. */
+    void report(PrintStream out) {
+        if (printSummary) {
+            out.print(summary());
+        }
+        if (exportFileName != null) {
+            try (PrintWriter writer = new PrintWriter(new FileWriter(exportFileName))) {
+                writer.println(toJson());
+            } catch (IOException e) {
+                out.println("Could not write metrics to '" + exportFileName + "': " + e.getMessage());
+            }
+        }
+    }
+
+    private static void appendCountRow(StringBuilder summary, String label, Histogram h) {
+        summary.append(String.format("%-22s %10d %12.1f %12d %12d %12d%n", label, h.count(), h.mean(),
+                h.percentile(0.5), h.percentile(0.99), h.max()));
+    }
+
+    private static void appendJson(StringBuilder json, Histogram h) {
+        json.append(String.format(Locale.ROOT, "{\"count\":%d,\"mean\":%.1f,\"p50\":%d,\"p99\":%d,\"max\":%d}",
+                h.count(), h.mean(), h.percentile(0.5), h.percentile(0.99), h.max()));
+    }
+
+    private static String formatNanos(double nanos) {
+        if (nanos >= 1e9) return String.format("%.2f s", nanos / 1e9);
+        if (nanos >= 1e6) return String.format("%.2f ms", nanos / 1e6);
+        if (nanos >= 1e3) return String.format("%.2f us", nanos / 1e3);
+        return String.format("%.0f ns", nanos);
+    }
+}
@@ -0,0 +1,216 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Streams a document through the spell checker in fixed-size chunks: whitespace is copied to
+ * the output untouched, each word is lowercased and checked against the dictionary, and
+ * misspelled words are handed to a resolver for their replacement. Memory use is constant
+ * regardless of input size, and line breaks and spacing survive exactly as written.
+ */
+final class SpellCheckPipeline {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    // Slots of the counts array threaded through run and emit
+    private static final int WORDS = 0;
+    private static final int MISSPELLINGS = 1;
+    private static final int EMIT_NANOS = 2;
+    private static final int RESOLVE_NANOS = 3;
+
+    private SpellCheckPipeline() {
+    }
+
+    /** Replacement for a misspelled word, given its 0-based word position in the document. */
+    @FunctionalInterface
+    interface Resolver {
+        String resolve(String misspelledWord, long position);
+    }
+
+    /** Counts and timing for one run. */
+    static final class Stats {
+        private final long bytes;
+        private final long words;
+        private final long misspellings;
+        private final long nanos;
+
+        Stats(long bytes, long words, long misspellings, long nanos) {
+            this.bytes = bytes;
+            this.words = words;
+            this.misspellings = misspellings;
+            this.nanos = nanos;
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        long words() {
+            return words;
+        }
+
+        long misspellings() {
+            return misspellings;
+        }
+
+        double seconds() {
+            return nanos / 1e9;
+        }
+
+        double megabytesPerSecond() {
+            return nanos == 0 ? 0 : (bytes / 1e6) / seconds();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d words, %d misspelled, %.1f MB in %.3f s (%.1f MB/s)",
+                    words, misspellings, bytes / 1e6, seconds(), megabytesPerSecond());
+        }
+    }
+
+    /** Checks inputFileName into outputFileName, reading and writing in the platform charset like Scanner/FileWriter. */
+    static Stats run(String inputFileName, String outputFileName, Dictionary dictionary,
+                     UnaryOperator<String> resolver) throws IOException {
+        return run(inputFileName, outputFileName, dictionary, resolver, null);
+    }
+
+    /** As run, also recording tokenize and lookup latencies and word throughput into metrics if it is not null. */
+    static Stats run(String inputFileName, String outputFileName, Dictionary dictionary,
+                     UnaryOperator<String> resolver, SpellCheckMetrics metrics) throws IOException {
+        return runWithPositions(inputFileName, outputFileName, dictionary, (word, position) -> resolver.apply(word),
+                metrics);
+    }
+
+    /** As run, passing the resolver each misspelling's word position as well. */
+    static Stats runWithPositions(String inputFileName, String outputFileName, Dictionary dictionary,
+                                  Resolver resolver, SpellCheckMetrics metrics) throws IOException {
+        long start = System.nanoTime();
+        long bytes = new File(inputFileName).length();
+        Charset charset = Charset.defaultCharset();
+        try (Reader in = new InputStreamReader(new FileInputStream(inputFileName), charset);
+             Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFileName), charset),
+                     BUFFER_SIZE)) {
+            long[] counts = runWithPositions(in, out, dictionary, resolver, metrics);
+            return new Stats(bytes, counts[0], counts[1], System.nanoTime() - start);
+        }
+    }
+
+    /** Streams in to out; returns {words, misspellings}. Does not close either side. */
+    static long[] run(Reader in, Writer out, Dictionary dictionary, UnaryOperator<String> resolver) throws IOException {
+        return run(in, out, dictionary, resolver, null);
+    }
+
+    static long[] run(Reader in, Writer out, Dictionary dictionary, UnaryOperator<String> resolver,
+                      SpellCheckMetrics metrics) throws IOException {
+        return runWithPositions(in, out, dictionary, (word, position) -> resolver.apply(word), metrics);
+    }
+
+    static long[] runWithPositions(Reader in, Writer out, Dictionary dictionary, Resolver resolver,
+                                   SpellCheckMetrics metrics) throws IOException {
+        long runStart = metrics == null ? 0 : System.nanoTime();
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder word = new StringBuilder(); // a word that may continue into the next chunk
+        boolean inWord = false;
+        // words, misspellings, then (with metrics only) nanos spent in emit and in the resolver
+        long[] counts = new long[4];
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            long chunkStart = metrics == null ? 0 : System.nanoTime();
+            long emitNanosBefore = counts[EMIT_NANOS];
+            int segmentStart = 0;
+            for (int i = 0; i < read; i++) {
+                boolean whitespace = Character.isWhitespace(buffer[i]);
+                if (inWord && whitespace) {
+                    word.append(buffer, segmentStart, i - segmentStart);
+                    emit(word, out, dictionary, resolver, metrics, counts);
+                    inWord = false;
+                    segmentStart = i;
+                } else if (!inWord && !whitespace) {
+                    // Whitespace is copied straight through
+                    out.write(buffer, segmentStart, i - segmentStart);
+                    inWord = true;
+                    segmentStart = i;
+                }
+            }
+
+            if (inWord) {
+                word.append(buffer, segmentStart, read - segmentStart);
+            } else {
+                out.write(buffer, segmentStart, read - segmentStart);
+            }
+            if (metrics != null) {
+                long emitNanos = counts[EMIT_NANOS] - emitNanosBefore;
+                metrics.recordLatency(SpellCheckMetrics.Stage.TOKENIZE, System.nanoTime() - chunkStart - emitNanos);
+            }
+        }
+
+        if (inWord) {
+            emit(word, out, dictionary, resolver, metrics, counts);
+        }
+        if (metrics != null) {
+            metrics.recordWords(counts[WORDS], System.nanoTime() - runStart - counts[RESOLVE_NANOS]);
+        }
+        return new long[] {counts[WORDS], counts[MISSPELLINGS]};
+    }
+
+    /**
+     * First pass of the deduplicating mode: every distinct misspelled word in inputFileName
+     * with its number of occurrences, in order of first appearance. Nothing is written.
+     */
+    static LinkedHashMap<String, Integer> collectMisspellings(String inputFileName, Dictionary dictionary)
+            throws IOException {
+        return collectMisspellings(inputFileName, dictionary, null);
+    }
+
+    /** As collectMisspellings, also storing each word's first word position in firstPositions unless it is null. */
+    static LinkedHashMap<String, Integer> collectMisspellings(String inputFileName, Dictionary dictionary,
+                                                              Map<String, Long> firstPositions) throws IOException {
+        LinkedHashMap<String, Integer> misspellings = new LinkedHashMap<>();
+        try (Reader in = new InputStreamReader(new FileInputStream(inputFileName), Charset.defaultCharset())) {
+            runWithPositions(in, Writer.nullWriter(), dictionary, (word, position) -> {
+                misspellings.merge(word, 1, Integer::sum);
+                if (firstPositions != null) firstPositions.putIfAbsent(word, position);
+                return word;
+            }, null);
+        }
+        return misspellings;
+    }
+
+    /** Writes the checked form of word, clears it and updates counts. */
+    private static void emit(StringBuilder word, Writer out, Dictionary dictionary, Resolver resolver,
+                             SpellCheckMetrics metrics, long[] counts) throws IOException {
+        long start = metrics == null ? 0 : System.nanoTime();
+        String lowercased = word.toString().toLowerCase();
+        word.setLength(0);
+        boolean known = dictionary.contains(lowercased);
+        long position = counts[WORDS]++;
+        if (metrics == null) {
+            out.write(known ? lowercased : resolver.resolve(lowercased, position));
+            if (!known) counts[MISSPELLINGS]++;
+            return;
+        }
+
+        long lookedUp = System.nanoTime();
+        metrics.recordLatency(SpellCheckMetrics.Stage.LOOKUP, lookedUp - start);
+        if (known) {
+            out.write(lowercased);
+        } else {
+            counts[MISSPELLINGS]++;
+            String replacement = resolver.resolve(lowercased, position);
+            counts[RESOLVE_NANOS] += System.nanoTime() - lookedUp;
+            out.write(replacement);
+        }
+        counts[EMIT_NANOS] += System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,243 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A long-lived spell-check process: loads the dictionary once and answers HTTP requests
+ * against it from a fixed pool of worker threads, all sharing one SpellCheckCore. Served from
+ * a DictionaryHolder, each request uses whichever core is current when it arrives, so edits to
+ * the dictionary or user word list take effect without a restart.
+ *
+ * POST /check    body: any text.  Returns its misspellings with offsets and suggestions:
+ *                {"words":5,"misspellings":[{"word":"satt","start":8,"end":12,"suggestions":["sat"]}]}
+ * POST /suggest  body: a batch of words separated by whitespace. Returns suggestions for each
+ *                one that is misspelled, in request order: {"satt":["sat"],"teh":["the"]}
+ * GET  /health   Returns {"status":"ok","words":<dictionary size>}
+ *
+ * Usage: java SpellCheckServer <dictionary> [--user-words FILE] [--port N] [--threads N]
+ * The dictionary and user word list are watched and reloaded when they change.
+ * The server listens on the loopback interface only.
+ */
+public class SpellCheckServer {
+
+    static final int DEFAULT_PORT = 8035;
+    // Larger request bodies are refused with 413 rather than read into memory
+    static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final Supplier<SpellCheckCore> cores;
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    /** Binds to port on the loopback interface (0 picks a free port); call start() to begin serving. */
+    public SpellCheckServer(SpellCheckCore core, int port, int threads) throws IOException {
+        this(() -> core, port, threads);
+    }
+
+    /** As above, answering each request from the holder's current core. */
+    public SpellCheckServer(DictionaryHolder holder, int port, int threads) throws IOException {
+        this(holder::current, port, threads);
+    }
+
+    private SpellCheckServer(Supplier<SpellCheckCore> cores, int port, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.cores = cores;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.workers = Executors.newFixedThreadPool(threads);
+        server.setExecutor(workers);
+        server.createContext("/check", exchange -> handle(exchange, "POST", this::check));
+        server.createContext("/suggest", exchange -> handle(exchange, "POST", this::suggest));
+        server.createContext("/health", exchange -> handle(exchange, "GET", body -> health()));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Stops accepting requests, waits up to a second for those in flight, then stops the workers. */
+    public void stop() {
+        server.stop(1);
+        workers.shutdownNow();
+    }
+
+    /** The port actually bound, useful when constructed with port 0. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Turns a request body into a JSON response body. */
+    private interface Endpoint {
+        String respond(String body);
+    }
+
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                send(exchange, 405, error("Use " + method));
+                return;
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                send(exchange, 413, error("Request body over " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+            send(exchange, 200, endpoint.respond(new String(body, StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error(String.valueOf(e.getMessage())));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String check(String text) {
+        List<SpellCheckCore.Misspelling> misspellings = cores.get().check(text);
+        StringBuilder json = new StringBuilder("{\"words\":").append(countWords(text)).append(",\"misspellings\":[");
+        for (int i = 0; i < misspellings.size(); i++) {
+            SpellCheckCore.Misspelling misspelling = misspellings.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"word\":").append(quote(misspelling.word()))
+                    .append(",\"start\":").append(misspelling.start())
+                    .append(",\"end\":").append(misspelling.end())
+                    .append(",\"suggestions\":");
+            appendArray(json, misspelling.suggestions());
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private String suggest(String body) {
+        SpellCheckCore core = cores.get();
+        List<String> misspelled = new ArrayList<>();
+        for (String word : body.trim().split("\\s+")) {
+            if (!word.isEmpty() && !core.isCorrect(word)) misspelled.add(word.toLowerCase());
+        }
+        Map<String, List<String>> suggestions = core.suggestionsForAll(misspelled, false);
+
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+        for (String word : misspelled) {
+            List<String> wordSuggestions = suggestions.remove(word); // each distinct word once
+            if (wordSuggestions == null) continue;
+            if (!first) json.append(',');
+            first = false;
+            json.append(quote(word)).append(':');
+            appendArray(json, wordSuggestions);
+        }
+        return json.append('}').toString();
+    }
+
+    private String health() {
+        return "{\"status\":\"ok\",\"words\":" + cores.get().getDictionary().size() + "}";
+    }
+
+    private static int countWords(String text) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean whitespace = Character.isWhitespace(text.charAt(i));
+            if (!whitespace && !inWord) words++;
+            inWord = !whitespace;
+        }
+        return words;
+    }
+
+    /** The whole body, or null if it is longer than MAX_BODY_BYTES. */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    private static void appendArray(StringBuilder json, List<String> values) {
+        json.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append(quote(values.get(i)));
+        }
+        json.append(']');
+    }
+
+    /** s as a JSON string literal. */
+    static String quote(String s) {
+        StringBuilder quoted = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    public static void main(String[] args) {
+        String dictionaryFile = null;
+        String userWordsFile = null;
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--user-words") && i + 1 < args.length) {
+                    userWordsFile = args[++i];
+                } else if (args[i].equals("--port") && i + 1 < args.length) {
+                    port = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (dictionaryFile == null) {
+                    dictionaryFile = args[i];
+                } else {
+                    dictionaryFile = null;
+                    break;
+                }
+            }
+        } catch (NumberFormatException e) {
+            dictionaryFile = null;
+        }
+        if (dictionaryFile == null) {
+            System.err.println("Usage: java SpellCheckServer <dictionary> [--user-words FILE] [--port N] [--threads N]");
+            System.exit(2);
+        }
+
+        try {
+            DictionaryHolder holder = new DictionaryHolder(dictionaryFile, userWordsFile);
+            holder.startWatching();
+            SpellCheckServer server = new SpellCheckServer(holder, port, threads);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            System.err.printf("Serving %d words on http://localhost:%d/ with %d threads%n",
+                    holder.current().getDictionary().size(), server.port(), threads);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SpellCheckServerTest {
+    public static void main(String[] args) {
+        SpellCheckServerTest tester = new SpellCheckServerTest();
+        tester.runTests();
+    }
+
+    private void runTests() {
+        System.out.println("Running SpellCheckServer.java tests:");
+        SpellCheckServer server;
+        try {
+            server = new SpellCheckServer(new SpellCheckCore(Dictionary.load("test_dictionary.txt")), 0, 4);
+        } catch (IOException e) {
+            System.out.println("Could not start server: " + e.getMessage());
+            return;
+        }
+        server.start();
+        try {
+            testCheck(server.port());
+            testSuggestBatch(server.port());
+            testConcurrentClients(server.port());
+            testWrongMethod(server.port());
+        } finally {
+            server.stop();
+        }
+        System.out.println("All SpellCheckServer.java tests finished.");
+    }
+
+    // Test that /check reports each misspelling with its offsets and suggestions
+    private void testCheck(int port) {
+        System.out.println("\n testCheck");
+        try {
+            String response = request(port, "POST", "/check", "Cat dog\tcoatt\nDog");
+            System.out.println("Response: " + response);
+            String expected = "{\"words\":4,\"misspellings\":[{\"word\":\"coatt\",\"start\":8,\"end\":13,"
+                    + "\"suggestions\":[\"coat\",\"boat\",\"goat\",\"cat\"]}]}";
+            System.out.println(response.equals(expected) ? "testCheck: PASSED" : "testCheck: FAILED");
+        } catch (IOException e) {
+            System.out.println("testCheck: FAILED, " + e.getMessage());
+        }
+    }
+
+    // Test that /suggest answers a whole batch, once per distinct misspelled word and in request order
+    private void testSuggestBatch(int port) {
+        System.out.println("\n testSuggestBatch");
+        try {
+            String response = request(port, "POST", "/suggest", "aple cat Coatt\naple");
+            System.out.println("Response: " + response);
+            String expected = "{\"aple\":[\"apple\",\"apply\",\"ape\"],\"coatt\":[\"coat\",\"boat\",\"goat\",\"cat\"]}";
+            System.out.println(response.equals(expected) ? "testSuggestBatch: PASSED" : "testSuggestBatch: FAILED");
+        } catch (IOException e) {
+            System.out.println("testSuggestBatch: FAILED, " + e.getMessage());
+        }
+    }
+
+    // Test that concurrent clients all get the same answer as a lone client
+    private void testConcurrentClients(int port) {
+        System.out.println("\n testConcurrentClients");
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            String expected = request(port, "POST", "/suggest", "boaat doog aple");
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                responses.add(clients.submit(() -> request(port, "POST", "/suggest", "boaat doog aple")));
+            }
+            int wrong = 0;
+            for (Future<String> response : responses) {
+                if (!response.get(30, TimeUnit.SECONDS).equals(expected)) wrong++;
+            }
+            System.out.println("64 requests, " + wrong + " wrong answers");
+            System.out.println(wrong == 0 ? "testConcurrentClients: PASSED" : "testConcurrentClients: FAILED");
+        } catch (Exception e) {
+            System.out.println("testConcurrentClients: FAILED, " + e);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    // Test that an endpoint refuses the wrong HTTP method
+    private void testWrongMethod(int port) {
+        System.out.println("\n testWrongMethod");
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/suggest").openConnection();
+            int status = connection.getResponseCode();
+            connection.disconnect();
+            String health = request(port, "GET", "/health", null);
+            System.out.println("GET /suggest: " + status + ", health: " + health);
+            boolean passed = status == 405 && health.equals("{\"status\":\"ok\",\"words\":8}");
+            System.out.println(passed ? "testWrongMethod: PASSED" : "testWrongMethod: FAILED");
+        } catch (IOException e) {
+            System.out.println("testWrongMethod: FAILED, " + e.getMessage());
+        }
+    }
+
+    // Helper methods
+    private String request(int port, String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -1,21 +1,100 @@
 import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Function;
 
 public class SpellChecker {
+    // Suggestion search parameters shared by the interactive and batch checkers
+    static final int SUGGESTION_TOLERANCE = 2;
+    static final double SUGGESTION_COMMON_PERCENT = 0.5;
+    static final int SUGGESTION_COUNT = 4;
+    // Largest number of edits the edit-distance engine looks for
+    static final int SUGGESTION_EDIT_DISTANCE = 2;
+
     private Scanner inputReader;
-    private HashSet<String> dictionarySet;
-    private WordRecommender recommender;
+    private Dictionary dictionary;
+    // Lookups and suggestions; everything below is console and file handling around it
+    private SpellCheckCore core;
+    // Ask once per distinct misspelled word instead of once per occurrence
+    private boolean deduplicateMisspellings;
+    // Re-check only what changed since the previous run on the same file
+    private boolean incremental;
+    // Search for upcoming misspellings' suggestions while the user answers the current prompt
+    private boolean prefetchSuggestions;
+    // Word frequency file to rank suggestions with (-Dspellchecker.frequencies=FILE), or null
+    private String frequencyFileName;
+    // How much frequency counts against similarity (-Dspellchecker.frequencyWeight, default tie-break only)
+    private double frequencyWeight;
+    // Where suggestions come from (-Dspellchecker.engine=similarity|edit, default similarity)
+    private SpellCheckCore.Engine engine;
+    // Stage timings for this run, or null unless -Dspellchecker.metrics or -Dspellchecker.metrics.file is set
+    private SpellCheckMetrics metrics;
 
     void setDictionarySet(HashSet<String> dictionarySet) { // Setter method for testing
-        this.dictionarySet = dictionarySet;
+        this.dictionary = Dictionary.fromWords(dictionarySet);
+        this.core = new SpellCheckCore(dictionary);
     }
 
     public SpellChecker() {
         inputReader = new Scanner(System.in);
+        deduplicateMisspellings = Boolean.getBoolean("spellchecker.dedupe");
+        incremental = Boolean.getBoolean("spellchecker.incremental");
+        prefetchSuggestions = !"false".equals(System.getProperty("spellchecker.prefetch"));
+        frequencyFileName = System.getProperty("spellchecker.frequencies");
+        frequencyWeight = WordRecommender.TIE_BREAK_WEIGHT;
+        try {
+            frequencyWeight = Double.parseDouble(System.getProperty("spellchecker.frequencyWeight", "" + frequencyWeight));
+        } catch (NumberFormatException e) {
+            // Keep the tie-break default
+        }
+        engine = SpellCheckCore.Engine.SIMILARITY;
+        try {
+            engine = SpellCheckCore.Engine.parse(System.getProperty("spellchecker.engine", "similarity"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + "; using similarity");
+        }
+        metrics = SpellCheckMetrics.fromSystemProperties();
+    }
+
+    /** Enables the two-pass mode that resolves each distinct misspelling once (-Dspellchecker.dedupe=true). */
+    public void setDeduplicateMisspellings(boolean deduplicateMisspellings) {
+        this.deduplicateMisspellings = deduplicateMisspellings;
+    }
+
+    /**
+     * Enables the mode that saves each file's results and, when the same file is checked again,
+     * only re-checks the words around what changed (-Dspellchecker.incremental=true).
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /** Turns background suggestion prefetching in processFile on or off (on unless -Dspellchecker.prefetch=false). */
+    public void setPrefetchSuggestions(boolean prefetchSuggestions) {
+        this.prefetchSuggestions = prefetchSuggestions;
+    }
+
+    /**
+     * Ranks suggestions by similarity plus word frequency from fileName (lines of "word count"),
+     * weighted as in WordRecommender.withFrequencies; a null fileName ranks by similarity alone.
+     */
+    public void setFrequencies(String fileName, double weight) {
+        this.frequencyFileName = fileName;
+        this.frequencyWeight = weight;
+    }
+
+    /** Selects the suggestion engine used from the next start() on. */
+    public void setEngine(SpellCheckCore.Engine engine) {
+        this.engine = engine;
+    }
+
+    /** Collects stage timings into metrics during start(), reporting them at the end; null turns this off. */
+    public void setMetrics(SpellCheckMetrics metrics) {
+        this.metrics = metrics;
     }
 
     public void start() {
@@ -37,20 +116,23 @@ public class SpellChecker {
             }
         }
 
-        // Step 2: Load dictionary into HashSet
-        dictionarySet = new HashSet<>();
+        // Step 2: Load dictionary once, from its compiled snapshot when an up-to-date one exists
+        long loadStart = System.nanoTime();
         try {
-            Scanner dictScanner = new Scanner(new File(dictionaryFileName));
-            while (dictScanner.hasNextLine()) {
-                dictionarySet.add(dictScanner.nextLine().trim().toLowerCase());
-            }
-            dictScanner.close();
+            dictionary = DictionarySnapshot.loadWithSnapshot(dictionaryFileName);
         } catch (Exception e) {
             // Silent fail - dictionary already validated
+            dictionary = Dictionary.empty();
+        }
+        if (metrics != null) {
+            metrics.recordLatency(SpellCheckMetrics.Stage.LOAD, System.nanoTime() - loadStart);
         }
 
-        // Step 3: Create recommender
-        recommender = new WordRecommender(dictionaryFileName);
+        // Step 3: Create the checker core, its recommender sharing the same dictionary (and
+        // building the edit-distance index now if that engine is selected)
+        WordRecommender recommender = new WordRecommender(dictionary).withMetrics(metrics)
+                .withFrequencies(loadFrequencies(), frequencyWeight);
+        core = new SpellCheckCore(dictionary, new SuggestionCache(recommender), engine);
 
         // Step 4: Get valid input filename
         String inputFileName = null;
@@ -66,12 +148,7 @@ public class SpellChecker {
                 inputFileName = fileName;
 
                 // Generate output filename
-                int dot = fileName.lastIndexOf('.');
-                if (dot > 0) {
-                    outputFileName = fileName.substring(0, dot) + "_chk.txt";
-                } else {
-                    outputFileName = fileName + "_chk.txt";
-                }
+                outputFileName = outputFileNameFor(fileName);
 
                 System.out.printf(Util.FILE_SUCCESS_NOTIFICATION, fileName, outputFileName);
                 break;
@@ -81,48 +158,118 @@ public class SpellChecker {
         }
 
         // Step 5: Process file
-        processFile(inputFileName, outputFileName);
+        if (incremental) {
+            processFileIncrementally(inputFileName, outputFileName);
+        } else if (deduplicateMisspellings) {
+            processFileDeduplicated(inputFileName, outputFileName);
+        } else {
+            processFile(inputFileName, outputFileName);
+        }
+        if (metrics != null) {
+            metrics.report(System.err);
+        }
 
         inputReader.close(); // DO NOT MODIFY - must be last line
     }
 
-    private void processFile(String inputFileName, String outputFileName) {
+    /** The frequency table for the loaded dictionary, or null if none is configured or it cannot be read. */
+    private WordFrequencies loadFrequencies() {
+        if (frequencyFileName == null) return null;
+        if (!(Double.isFinite(frequencyWeight) && frequencyWeight >= 0)) {
+            System.err.println("Ignoring word frequencies: weight must be finite and non-negative, got "
+                    + frequencyWeight);
+            return null;
+        }
         try {
-            Scanner fileScanner = new Scanner(new File(inputFileName));
-            PrintWriter writer = new PrintWriter(new FileWriter(outputFileName));
+            return WordFrequencies.load(frequencyFileName, dictionary);
+        } catch (Exception e) {
+            System.err.println("Ignoring word frequencies: " + e.getMessage());
+            return null;
+        }
+    }
 
-            boolean firstWord = true;
-            while (fileScanner.hasNext()) {
-                String word = fileScanner.next().toLowerCase();
+    /** The corrected-output name for an input file: "notes.txt" becomes "notes_chk.txt". */
+    static String outputFileNameFor(String inputFileName) {
+        int dot = inputFileName.lastIndexOf('.');
+        if (dot > 0) {
+            return inputFileName.substring(0, dot) + "_chk.txt";
+        } else {
+            return inputFileName + "_chk.txt";
+        }
+    }
 
-                String finalWord;
-                if (dictionarySet.contains(word)) {
-                    finalWord = word;
-                } else {
-                    finalWord = handleMisspelling(word);
-                }
+    private void processFile(String inputFileName, String outputFileName) {
+        if (!prefetchSuggestions) {
+            try {
+                // Stream the file through, keeping its original spacing and line breaks
+                SpellCheckPipeline.run(inputFileName, outputFileName, dictionary, this::handleMisspelling, metrics);
+            } catch (Exception e) {
+                System.out.println("Error processing file: " + e.getMessage());
+            }
+            return;
+        }
 
-                if (!firstWord) {
-                    writer.print(" ");
+        // Same pass, with upcoming misspellings searched for in the background while the user answers
+        try (SuggestionPrefetcher prefetcher = new SuggestionPrefetcher(core)) {
+            prefetcher.start(inputFileName);
+            SpellCheckPipeline.run(inputFileName, outputFileName, dictionary,
+                    word -> handleMisspelling(word, prefetcher::suggestions), metrics);
+        } catch (Exception e) {
+            System.out.println("Error processing file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Two-pass variant of processFile: collects the distinct misspelled words first, computes
+     * all their suggestions in parallel, asks once per word, then rewrites the file.
+     */
+    private void processFileDeduplicated(String inputFileName, String outputFileName) {
+        try {
+            LinkedHashMap<String, Integer> misspellings = SpellCheckPipeline.collectMisspellings(inputFileName, dictionary);
+            Map<String, List<String>> suggestions = core.suggestionsForAll(misspellings.keySet(), true);
+
+            HashMap<String, String> decisions = new HashMap<>();
+            for (Map.Entry<String, Integer> misspelling : misspellings.entrySet()) {
+                String word = misspelling.getKey();
+                System.out.printf(Util.MISSPELL_NOTIFICATION, word);
+                if (misspelling.getValue() > 1) {
+                    System.out.printf(Util.MISSPELL_COUNT_NOTIFICATION, misspelling.getValue());
                 }
-                writer.print(finalWord);
-                firstWord = false;
+                decisions.put(word, chooseReplacement(word, suggestions.get(word)));
             }
 
-            fileScanner.close();
-            writer.close();
+            SpellCheckPipeline.run(inputFileName, outputFileName, dictionary, decisions::get, metrics);
+        } catch (Exception e) {
+            System.out.println("Error processing file: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Variant of processFile that reuses the results saved by the previous run on this file,
+     * asking only about misspellings in the changed part that were not decided before.
+     */
+    private void processFileIncrementally(String inputFileName, String outputFileName) {
+        try {
+            IncrementalSpellCheck.run(inputFileName, outputFileName, dictionary, this::handleMisspelling);
         } catch (Exception e) {
             System.out.println("Error processing file: " + e.getMessage());
         }
     }
 
     private String handleMisspelling(String misspelledWord) {
+        return handleMisspelling(misspelledWord, core::suggestions);
+    }
+
+    private String handleMisspelling(String misspelledWord, Function<String, List<String>> suggestionSource) {
         System.out.printf(Util.MISSPELL_NOTIFICATION, misspelledWord);
 
-        // Get suggestions
-        ArrayList<String> suggestions = recommender.getWordSuggestions(misspelledWord, 2, 0.5, 4);
+        // Get suggestions, reusing earlier results for repeated misspellings
+        List<String> suggestions = suggestionSource.apply(misspelledWord);
+        return chooseReplacement(misspelledWord, suggestions);
+    }
 
+    /** Shows the suggestions and asks the user how to replace misspelledWord. */
+    private String chooseReplacement(String misspelledWord, List<String> suggestions) {
         if (suggestions.isEmpty()) {
             // No suggestions case
             System.out.printf(Util.NO_SUGGESTIONS);
@@ -0,0 +1,130 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A bounded, thread-safe LRU cache in front of WordRecommender.getWordSuggestions, keyed on
+ * (word, tolerance, commonPercent, topN). Recurring misspellings then cost one hash lookup
+ * instead of a dictionary search. Callers get their own copy of each cached list.
+ */
+public class SuggestionCache {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final WordRecommender recommender;
+    private final int capacity;
+    private final LinkedHashMap<Key, ArrayList<String>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SuggestionCache(WordRecommender recommender) {
+        this(recommender, DEFAULT_CAPACITY);
+    }
+
+    public SuggestionCache(WordRecommender recommender, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be at least 1: " + capacity);
+        }
+        this.recommender = recommender;
+        this.capacity = capacity;
+        // Access order makes iteration order least-recently-used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ArrayList<String>> eldest) {
+                return size() > SuggestionCache.this.capacity;
+            }
+        };
+    }
+
+    /** Same contract as WordRecommender.getWordSuggestions. */
+    public ArrayList<String> getWordSuggestions(String word, int tolerance, double commonPercent, int topN) {
+        Key key = new Key(word, tolerance, commonPercent, topN);
+        ArrayList<String> cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return new ArrayList<>(cached);
+        }
+
+        // Compute outside the lock; two threads missing on the same key just both compute it
+        misses.incrementAndGet();
+        ArrayList<String> suggestions = recommender.getWordSuggestions(word, tolerance, commonPercent, topN);
+        synchronized (entries) {
+            entries.put(key, new ArrayList<>(suggestions));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Suggestions for every word in words, computed in parallel on the common pool when
+     * parallel is true. The results also populate the cache.
+     */
+    public Map<String, ArrayList<String>> getWordSuggestionsForAll(Collection<String> words, int tolerance,
+                                                                  double commonPercent, int topN, boolean parallel) {
+        Stream<String> stream = parallel ? words.parallelStream() : words.stream();
+        return stream.distinct().collect(Collectors.toConcurrentMap(
+                word -> word, word -> getWordSuggestions(word, tolerance, commonPercent, topN)));
+    }
+
+    public WordRecommender getRecommender() {
+        return recommender;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static final class Key {
+        private final String word;
+        private final int tolerance;
+        private final double commonPercent;
+        private final int topN;
+
+        Key(String word, int tolerance, double commonPercent, int topN) {
+            this.word = word;
+            this.tolerance = tolerance;
+            this.commonPercent = commonPercent;
+            this.topN = topN;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return word.equals(other.word) && tolerance == other.tolerance
+                    && Double.compare(commonPercent, other.commonPercent) == 0 && topN == other.topN;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(word, tolerance, commonPercent, topN);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Keeps the best N dictionary indices seen so far, ranked by score.
+ * A higher score wins; on equal scores the lower dictionary index wins, which matches
+ * the old behaviour of preferring whichever candidate appears first in the dictionary.
+ * The worst kept entry sits at the root so each offer is O(log N) with no allocation.
+ */
+final class SuggestionHeap {
+
+    private final int capacity;
+    private final double[] scores;
+    private final int[] indices;
+    private int size;
+    private long offered;
+    private double bar = Double.NEGATIVE_INFINITY;
+
+    SuggestionHeap(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.scores = new double[this.capacity];
+        this.indices = new int[this.capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** How many candidates have been offered, including those offered to heaps merged in by addAll. */
+    long offered() {
+        return offered;
+    }
+
+    /** True if (scoreA, indexA) ranks below (scoreB, indexB). */
+    static boolean ranksBelow(double scoreA, int indexA, double scoreB, int indexB) {
+        return scoreA < scoreB || (scoreA == scoreB && indexA > indexB);
+    }
+
+    /**
+     * The score a candidate has to reach to get in right now: negative infinity until the heap is
+     * full, then the worst kept score (reaching it exactly still depends on the index tie-break).
+     * The bar only rises as candidates are offered, so a candidate whose best possible score falls
+     * short of it can be skipped.
+     */
+    double bar() {
+        return bar;
+    }
+
+    /** Adds the candidate if it belongs in the top N. */
+    void offer(double score, int index) {
+        offered++;
+        if (size < capacity) {
+            scores[size] = score;
+            indices[size] = index;
+            siftUp(size++);
+        } else if (capacity > 0 && ranksBelow(scores[0], indices[0], score, index)) {
+            scores[0] = score;
+            indices[0] = index;
+            siftDown(0);
+        } else {
+            return;
+        }
+        if (size == capacity) bar = scores[0];
+    }
+
+    /** Offers every entry of other into this heap. */
+    void addAll(SuggestionHeap other) {
+        long alreadyOffered = offered;
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.indices[i]);
+        }
+        offered = alreadyOffered + other.offered;
+    }
+
+    /** Empties the heap, returning the kept indices best first. */
+    int[] drainBestFirst() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = indices[0];
+            size--;
+            scores[0] = scores[size];
+            indices[0] = indices[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (!ranksBelow(scores[pos], indices[pos], scores[parent], indices[parent])) break;
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    private void siftDown(int pos) {
+        while (true) {
+            int worst = pos;
+            int left = 2 * pos + 1;
+            int right = left + 1;
+            if (left < size && ranksBelow(scores[left], indices[left], scores[worst], indices[worst])) worst = left;
+            if (right < size && ranksBelow(scores[right], indices[right], scores[worst], indices[worst])) worst = right;
+            if (worst == pos) return;
+            swap(pos, worst);
+            pos = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        int i = indices[a];
+        indices[a] = indices[b];
+        indices[b] = i;
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Computes suggestions for upcoming misspellings before the interactive checker reaches them.
+ * A scanner thread reads ahead through the input, looking each word up in the dictionary, and
+ * hands every distinct misspelling, in order of appearance, to a small worker pool. While the
+ * user answers one prompt the workers are already searching for the next ones, so a prompt
+ * usually shows up without any search delay.
+ *
+ * The scanner stays at most lookahead distinct misspellings ahead of the words taken with
+ * suggestions(), so a long document is not searched far beyond what the user has reached.
+ */
+final class SuggestionPrefetcher implements AutoCloseable {
+
+    static final int DEFAULT_LOOKAHEAD = 16;
+
+    // Marks a word the checker has already taken, whether or not it was prefetched
+    private static final CompletableFuture<List<String>> TAKEN = CompletableFuture.completedFuture(null);
+
+    private final SpellCheckCore core;
+    private final ConcurrentHashMap<String, CompletableFuture<List<String>>> prefetched = new ConcurrentHashMap<>();
+    private final Semaphore lookahead;
+    private final ExecutorService workers;
+    private Thread scanner;
+
+    SuggestionPrefetcher(SpellCheckCore core) {
+        this(core, DEFAULT_LOOKAHEAD, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    SuggestionPrefetcher(SpellCheckCore core, int lookahead, int threads) {
+        this.core = core;
+        this.lookahead = new Semaphore(lookahead);
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "suggestion-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Starts reading ahead through inputFileName in the background. */
+    synchronized void start(String inputFileName) {
+        if (scanner != null) return;
+        scanner = new Thread(() -> scan(inputFileName), "suggestion-prefetch-scanner");
+        scanner.setDaemon(true);
+        scanner.start();
+    }
+
+    private void scan(String inputFileName) {
+        try (Reader in = new InputStreamReader(new FileInputStream(inputFileName), Charset.defaultCharset())) {
+            SpellCheckPipeline.run(in, Writer.nullWriter(), core.getDictionary(), word -> {
+                prefetch(word);
+                return word;
+            });
+        } catch (IOException | CancellationException | RejectedExecutionException e) {
+            // Unreadable input or closed: the checker computes whatever was not prefetched itself
+        }
+    }
+
+    /** Queues a search for word unless it was queued or taken already; blocks while the lookahead is used up. */
+    private void prefetch(String word) {
+        if (prefetched.containsKey(word)) return;
+        try {
+            lookahead.acquire();
+        } catch (InterruptedException e) {
+            throw new CancellationException("Prefetching stopped");
+        }
+        CompletableFuture<List<String>> suggestions = new CompletableFuture<>();
+        if (prefetched.putIfAbsent(word, suggestions) != null) {
+            lookahead.release(); // taken meanwhile
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    suggestions.complete(core.suggestions(word));
+                } catch (Throwable e) {
+                    // Complete on anything, an Error included, so suggestions() never waits forever
+                    suggestions.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            suggestions.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Suggestions for the lowercased misspelling word, waiting for a prefetch already under way
+     * rather than starting a second search. Same result as core.suggestions(word).
+     */
+    List<String> suggestions(String word) {
+        CompletableFuture<List<String>> pending = prefetched.put(word, TAKEN);
+        if (pending == null || pending == TAKEN) {
+            // Not reached by the scanner yet, or a repeat answered from the core's cache
+            return core.suggestions(word);
+        }
+        lookahead.release();
+        try {
+            return pending.join();
+        } catch (RuntimeException e) {
+            return core.suggestions(word);
+        }
+    }
+
+    /** Stops the scanner and abandons any searches not yet started; suggestions() then searches itself. */
+    @Override
+    public synchronized void close() {
+        if (scanner != null) scanner.interrupt();
+        workers.shutdownNow();
+        for (CompletableFuture<List<String>> pending : prefetched.values()) {
+            pending.completeExceptionally(new CancellationException("Prefetching stopped"));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class SuggestionPrefetcherTest {
+    public static void main(String[] args) {
+        SuggestionPrefetcherTest tester = new SuggestionPrefetcherTest();
+        tester.runTests();
+    }
+
+    private static final String INPUT = "prefetch_input.txt";
+
+    private void runTests() {
+        System.out.println("Running SuggestionPrefetcher.java tests:");
+        testLookahead();
+        testSameSuggestions();
+        testWorkerError();
+        System.out.println("All SuggestionPrefetcher.java tests finished.");
+    }
+
+    private Dictionary loadTestDictionary() {
+        try {
+            return Dictionary.load("test_dictionary.txt");
+        } catch (Exception e) {
+            System.out.println("Could not load test_dictionary.txt: " + e.getMessage());
+            return Dictionary.empty();
+        }
+    }
+
+    // Test that the scanner searches ahead, but no more than lookahead misspellings ahead of the checker
+    private void testLookahead() {
+        System.out.println("\n testLookahead");
+        Dictionary dictionary = loadTestDictionary();
+        SuggestionCache cache = new SuggestionCache(new WordRecommender(dictionary));
+        SpellCheckCore core = new SpellCheckCore(dictionary, cache);
+        try (SuggestionPrefetcher prefetcher = new SuggestionPrefetcher(core, 3, 2)) {
+            writeFile(INPUT, "cat aple catt dgo aple coatt doog appple goatt\n");
+            prefetcher.start(INPUT);
+            long ahead = waitForSearches(cache, 3);
+            Thread.sleep(200);
+            boolean stopped = cache.missCount() == 3;
+
+            prefetcher.suggestions("aple");
+            long afterOne = waitForSearches(cache, 4);
+            System.out.println("Searched " + ahead + " ahead, then " + afterOne + " after taking one");
+            boolean passed = ahead == 3 && stopped && afterOne == 4;
+            System.out.println(passed ? "testLookahead: PASSED" : "testLookahead: FAILED");
+        } catch (IOException | InterruptedException e) {
+            System.out.println("testLookahead: FAILED, " + e.getMessage());
+        } finally {
+            new File(INPUT).delete();
+        }
+    }
+
+    // Test that taking words in file order, repeats and words the scanner never saw included,
+    // gives exactly what the core computes on its own
+    private void testSameSuggestions() {
+        System.out.println("\n testSameSuggestions");
+        SpellCheckCore core = new SpellCheckCore(loadTestDictionary());
+        SpellCheckCore reference = new SpellCheckCore(core.getDictionary(), null);
+        String[] misspellings = {"aple", "catt", "dgo", "aple", "coatt", "doog", "appple", "goatt", "zzz"};
+        boolean passed = true;
+        try (SuggestionPrefetcher prefetcher = new SuggestionPrefetcher(core, 2, 2)) {
+            writeFile(INPUT, "cat aple catt dgo aple coatt doog appple goatt\n");
+            prefetcher.start(INPUT);
+            for (String word : misspellings) {
+                List<String> suggestions = prefetcher.suggestions(word);
+                if (!suggestions.equals(reference.suggestions(word))) {
+                    System.out.println("Different suggestions for '" + word + "': " + suggestions);
+                    passed = false;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("testSameSuggestions: FAILED, " + e.getMessage());
+            return;
+        } finally {
+            new File(INPUT).delete();
+        }
+        System.out.println(passed ? "testSameSuggestions: PASSED" : "testSameSuggestions: FAILED");
+    }
+
+    // Test that a search failing with an Error on a worker still answers, from the checker's own search
+    private void testWorkerError() {
+        System.out.println("\n testWorkerError");
+        Dictionary dictionary = loadTestDictionary();
+        SuggestionCache failingOnWorkers = new SuggestionCache(new WordRecommender(dictionary)) {
+            @Override
+            public ArrayList<String> getWordSuggestions(String word, int tolerance, double commonPercent, int topN) {
+                if (Thread.currentThread().getName().equals("suggestion-prefetch")) {
+                    throw new StackOverflowError("search failed");
+                }
+                return super.getWordSuggestions(word, tolerance, commonPercent, topN);
+            }
+        };
+        SpellCheckCore core = new SpellCheckCore(dictionary, failingOnWorkers);
+        SpellCheckCore reference = new SpellCheckCore(dictionary, null);
+        try (SuggestionPrefetcher prefetcher = new SuggestionPrefetcher(core, 4, 2)) {
+            writeFile(INPUT, "aple catt dgo\n");
+            prefetcher.start(INPUT);
+            Thread.sleep(200);
+            List<String> suggestions = CompletableFuture.supplyAsync(() -> prefetcher.suggestions("catt"))
+                    .get(10, TimeUnit.SECONDS);
+            boolean passed = suggestions.equals(reference.suggestions("catt"));
+            System.out.println(passed ? "testWorkerError: PASSED" : "testWorkerError: FAILED, " + suggestions);
+        } catch (Exception e) {
+            System.out.println("testWorkerError: FAILED, " + e);
+        } finally {
+            new File(INPUT).delete();
+        }
+    }
+
+    // Helper methods
+    private long waitForSearches(SuggestionCache cache, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cache.missCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return cache.missCount();
+    }
+
+    private void writeFile(String fileName, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.write(content);
+        }
+    }
+}
@@ -9,6 +9,7 @@ public class Util {
 	public static final String FILE_SUCCESS_NOTIFICATION = "Spell checking for '%s' will be output in '%s'.%n";
 
 	public static final String MISSPELL_NOTIFICATION = "The word '%s' is misspelled.%n";
+	public static final String MISSPELL_COUNT_NOTIFICATION = "It appears %d times; your choice applies to all of them.%n";
 	public static final String FOLLOWING_SUGGESTIONS = "The following suggestions are available:%n";
 	public static final String SUGGESTION_ENTRY = "%d. '%s'%n";
 	public static final String THREE_OPTION_PROMPT = "Press 'r' to replace, 'a' to accept, and 't' to enter a replacement manually.%n";
@@ -0,0 +1,129 @@
+import java.util.List;
+
+/**
+ * The dictionary's words packed end to end in one char array, word i occupying
+ * chars[offsets[i], offsets[i + 1]). Scans read candidates straight out of the array instead
+ * of chasing one String object per word, and a String is only created for a word that is
+ * actually returned.
+ */
+final class WordArena {
+
+    private final char[] chars;
+    private final int[] offsets; // one more entry than there are words
+
+    /** Wraps already packed data, e.g. read back from a DictionarySnapshot; offsets[0] must be 0. */
+    WordArena(char[] chars, int[] offsets) {
+        this.chars = chars;
+        this.offsets = offsets;
+    }
+
+    static WordArena of(List<String> words) {
+        int[] offsets = new int[words.size() + 1];
+        for (int i = 0; i < words.size(); i++) {
+            offsets[i + 1] = offsets[i] + words.get(i).length();
+        }
+        char[] chars = new char[offsets[words.size()]];
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            word.getChars(0, word.length(), chars, offsets[i]);
+        }
+        return new WordArena(chars, offsets);
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    /** The packed characters of every word. Callers must not modify the array. */
+    char[] chars() {
+        return chars;
+    }
+
+    /** Position of word index's first character in chars(). */
+    int start(int index) {
+        return offsets[index];
+    }
+
+    int length(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /** Word index as a new String. */
+    String word(int index) {
+        return new String(chars, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+
+    /** Whether word index equals s, compared in place. */
+    boolean matches(int index, String s) {
+        return length(index) == s.length() && startsWith(index, s);
+    }
+
+    /** Whether word index starts with prefix, compared in place. */
+    boolean startsWith(int index, String prefix) {
+        int start = offsets[index];
+        if (offsets[index + 1] - start < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars[start + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** A hash set over these words that stores only word indices, not Strings. */
+    HashIndex hashIndex() {
+        return new HashIndex(this);
+    }
+
+    /**
+     * Open addressing with linear probing over an int table holding index + 1 (0 marks an empty
+     * slot). Slots hash like String.hashCode, so a query's cached hash is reused. Duplicate
+     * words are stored once.
+     */
+    static final class HashIndex {
+        private final WordArena arena;
+        private final int[] table;
+
+        HashIndex(WordArena arena) {
+            this.arena = arena;
+            // Power of two at least twice the word count keeps probe runs short
+            int capacity = Integer.highestOneBit(Math.max(2, arena.size()) * 2 - 1) << 1;
+            this.table = new int[capacity];
+            for (int i = 0; i < arena.size(); i++) {
+                int slot = slotOf(hash(arena, i));
+                while (table[slot] != 0 && !sameWord(arena, table[slot] - 1, i)) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+                if (table[slot] == 0) table[slot] = i + 1;
+            }
+        }
+
+        boolean contains(String word) {
+            int slot = slotOf(word.hashCode());
+            while (table[slot] != 0) {
+                if (arena.matches(table[slot] - 1, word)) return true;
+                slot = (slot + 1) & (table.length - 1);
+            }
+            return false;
+        }
+
+        private int slotOf(int hash) {
+            return (hash ^ (hash >>> 16)) & (table.length - 1);
+        }
+
+        private static int hash(WordArena arena, int index) {
+            int h = 0;
+            for (int p = arena.start(index), end = p + arena.length(index); p < end; p++) {
+                h = 31 * h + arena.chars[p];
+            }
+            return h;
+        }
+
+        private static boolean sameWord(WordArena arena, int a, int b) {
+            int length = arena.length(a);
+            if (length != arena.length(b)) return false;
+            for (int i = 0; i < length; i++) {
+                if (arena.chars[arena.offsets[a] + i] != arena.chars[arena.offsets[b] + i]) return false;
+            }
+            return true;
+        }
+    }
+}
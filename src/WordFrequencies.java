@@ -0,0 +1,93 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How common each dictionary word is, as an int array aligned with the dictionary's indices
+ * (0 for words the frequency list does not mention). Loaded from a text file with one
+ * "word count" pair per line; words are trimmed and lowercased like dictionary words, counts
+ * for the same word are added up, and blank lines and lines starting with # are skipped. The
+ * file is read in the platform default charset, like the dictionary.
+ */
+public final class WordFrequencies {
+
+    private final int[] counts;
+    private final int maxCount;
+
+    private WordFrequencies(int[] counts) {
+        this.counts = counts;
+        int max = 0;
+        for (int count : counts) max = Math.max(max, count);
+        this.maxCount = max;
+    }
+
+    /** Reads fileName and aligns its counts with dictionary. */
+    public static WordFrequencies load(String fileName, Dictionary dictionary) throws IOException {
+        HashMap<String, Integer> counts = new HashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(fileName), Charset.defaultCharset())) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+                String[] fields = trimmed.split("\\s+");
+                long count;
+                try {
+                    count = fields.length == 2 ? Long.parseLong(fields[1]) : -1;
+                } catch (NumberFormatException e) {
+                    count = -1;
+                }
+                if (count < 0) {
+                    throw new IOException("Expected 'word count' on line " + lineNumber + " of " + fileName + ": " + line);
+                }
+                counts.merge(fields[0].toLowerCase(), (int) Math.min(count, Integer.MAX_VALUE), WordFrequencies::add);
+            }
+        }
+        return of(dictionary, counts);
+    }
+
+    /** Aligns counts, keyed by lowercased word, with dictionary. */
+    public static WordFrequencies of(Dictionary dictionary, Map<String, Integer> counts) {
+        int[] aligned = new int[dictionary.size()];
+        for (int i = 0; i < aligned.length; i++) {
+            Integer count = counts.get(dictionary.word(i));
+            if (count != null) aligned[i] = Math.max(0, count);
+        }
+        return new WordFrequencies(aligned);
+    }
+
+    private static int add(int a, int b) {
+        return (int) Math.min((long) a + b, Integer.MAX_VALUE);
+    }
+
+    /** Number of dictionary words covered, i.e. the dictionary's size. */
+    public int size() {
+        return counts.length;
+    }
+
+    /** The count of dictionary word index. */
+    public int count(int index) {
+        return counts[index];
+    }
+
+    /**
+     * weight * log(1 + count) / log(1 + maxCount) for every word: 0 for unseen words, weight for
+     * the most common one. The logarithm keeps a handful of very common words from flattening
+     * everything else.
+     */
+    double[] bonuses(double weight) {
+        double[] bonuses = new double[counts.length];
+        if (maxCount == 0) return bonuses;
+        double scale = weight / Math.log1p(maxCount);
+        for (int i = 0; i < counts.length; i++) {
+            bonuses[i] = Math.log1p(counts[i]) * scale;
+        }
+        return bonuses;
+    }
+}
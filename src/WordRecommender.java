@@ -1,37 +1,114 @@
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
+/**
+ * Suggests dictionary words for a misspelling. Instances are immutable and every query works
+ * on its own local state, so one recommender can be shared by any number of threads without
+ * locking; withParallelThreshold, withMetrics, withFrequencies and withEditDistanceIndex return
+ * configured copies sharing the indexes.
+ */
 public class WordRecommender {
 
-    private final ArrayList<String> dictionary;
-    private final HashSet<String> dictSet;
+    /**
+     * A withFrequencies weight that only reorders words of equal similarity: similarities are
+     * multiples of 0.5, so any weight below 0.5 never lifts a word past a more similar one.
+     */
+    public static final double TIE_BREAK_WEIGHT = 0.25;
+
+    private final Dictionary dictionary;
+    // Character -> words containing it, so the overlap filter can skip words sharing none of the rare ones
+    private final CharPostingIndex postingIndex;
+    // Probe the posting lists only when they hold under 1/ratio as many entries as the bucket has words
+    private static final int INDEXED_SCAN_RATIO = 4;
+    // Lookups that would visit at least this many words are split across the common fork-join pool
+    private final int parallelThreshold;
+    // Receives suggestion latencies and candidate counts when set; null means no timing at all
+    private final SpellCheckMetrics metrics;
+    // Deletion index behind getEditDistanceSuggestions, built by withEditDistanceIndex; null until then
+    private final DeletionIndex deletionIndex;
+    // Added to each word's similarity when ranking, indexed like the dictionary; null ranks by similarity alone
+    private final double[] frequencyBonus;
+    // The largest frequencyBonus entry, 0 without frequencies
+    private final double maxFrequencyBonus;
 
     public WordRecommender(String dictionaryFileName) {
-        this.dictionary = new ArrayList<>();
-        this.dictSet = new HashSet<>();
-        loadDictionary(dictionaryFileName);
-    }
-
-    private void loadDictionary(String filename) {
-        try (Scanner sc = new Scanner(new File(filename))) {
-            while (sc.hasNextLine()) {
-                String w = sc.nextLine().trim().toLowerCase();
-                if (!w.isEmpty()) {
-                    dictionary.add(w);
-                    dictSet.add(w);
-                }
-            }
-        } catch (FileNotFoundException e) {
+        this(loadDictionary(dictionaryFileName));
+    }
+
+    /** Shares an already loaded dictionary, e.g. the one SpellChecker uses for lookups. */
+    public WordRecommender(Dictionary dictionary) {
+        this.dictionary = dictionary;
+        this.postingIndex = CharPostingIndex.build(dictionary);
+        this.parallelThreshold = Integer.MAX_VALUE;
+        this.metrics = null;
+        this.deletionIndex = null;
+        this.frequencyBonus = null;
+        this.maxFrequencyBonus = 0;
+    }
+
+    private WordRecommender(WordRecommender other, int parallelThreshold, SpellCheckMetrics metrics,
+                            double[] frequencyBonus, DeletionIndex deletionIndex) {
+        this.dictionary = other.dictionary;
+        this.postingIndex = other.postingIndex;
+        this.parallelThreshold = parallelThreshold;
+        this.metrics = metrics;
+        this.deletionIndex = deletionIndex;
+        this.frequencyBonus = frequencyBonus;
+        double max = 0;
+        if (frequencyBonus != null) {
+            for (double bonus : frequencyBonus) max = Math.max(max, bonus);
+        }
+        this.maxFrequencyBonus = max;
+    }
+
+    private static Dictionary loadDictionary(String filename) {
+        try {
+            return Dictionary.load(filename);
+        } catch (IOException e) {
             // Let caller handle invalid path earlier; here we just keep empty dict if constructed incorrectly.
+            return Dictionary.empty();
         }
     }
 
+    /**
+     * A copy that searches in parallel for lookups whose length buckets hold at least threshold
+     * words. Off by default (Integer.MAX_VALUE); results are identical either way.
+     */
+    public WordRecommender withParallelThreshold(int threshold) {
+        return new WordRecommender(this, threshold, metrics, frequencyBonus, deletionIndex);
+    }
+
+    /** A copy that records each getWordSuggestions search into metrics; null turns recording off. */
+    public WordRecommender withMetrics(SpellCheckMetrics metrics) {
+        return new WordRecommender(this, parallelThreshold, metrics, frequencyBonus, deletionIndex);
+    }
+
+    /**
+     * A copy whose getWordSuggestions ranks by similarity plus weight * log(1 + count) /
+     * log(1 + highest count), so common words win over rare ones. With TIE_BREAK_WEIGHT or any
+     * weight below 0.5 frequency only breaks similarity ties; larger weights blend the two.
+     * Words of equal score still go in dictionary order. Null frequencies turn this off.
+     */
+    public WordRecommender withFrequencies(WordFrequencies frequencies, double weight) {
+        if (frequencies == null) {
+            return new WordRecommender(this, parallelThreshold, metrics, null, deletionIndex);
+        }
+        if (frequencies.size() != dictionary.size()) {
+            throw new IllegalArgumentException("Frequencies cover " + frequencies.size()
+                    + " words but the dictionary has " + dictionary.size());
+        }
+        if (!(Double.isFinite(weight) && weight >= 0)) {
+            throw new IllegalArgumentException("Frequency weight must be finite and non-negative: " + weight);
+        }
+        return new WordRecommender(this, parallelThreshold, metrics, frequencies.bonuses(weight), deletionIndex);
+    }
+
     /** Fast exact check: whether word is in the dictionary. */
     public boolean contains(String word) {
-        return dictSet.contains(word);
+        return dictionary.contains(word);
     }
 
     /** Left-right similarity: average of left and right aligned character matches. */
@@ -51,60 +128,276 @@ public class WordRecommender {
         return (left + right) / 2.0;
     }
 
-    /** Percentage of unique character overlap (|A∩B| / |A∪B|) using sets (no duplicates). */
-    private double commonPercent(String a, String b) {
-        HashSet<Character> A = new HashSet<>();
-        HashSet<Character> B = new HashSet<>();
-        for (char c : a.toCharArray()) A.add(c);
-        for (char c : b.toCharArray()) B.add(c);
+    /**
+     * getSimilarity(a, b) for the lb characters of b from bStart, or -1 as soon as the result
+     * provably falls short of bar. Each mismatch lowers the best score still reachable, so most
+     * non-contenders stop at their first few.
+     */
+    static double boundedSimilarity(String a, char[] b, int bStart, int lb, double bar) {
+        int min = Math.min(a.length(), lb);
+        if (min < bar) return -1; // even a match at every position scores only min
 
-        HashSet<Character> union = new HashSet<>(A);
-        union.addAll(B);
-        if (union.isEmpty()) return 1.0;
+        int left = 0;
+        for (int i = 0; i < min; i++) {
+            if (a.charAt(i) == b[bStart + i]) {
+                left++;
+            } else if ((left + (min - 1 - i) + min) / 2.0 < bar) {
+                return -1;
+            }
+        }
+
+        int right = 0;
+        for (int k = 1; k <= min; k++) {
+            if (a.charAt(a.length() - k) == b[bStart + lb - k]) {
+                right++;
+            } else if ((left + right + (min - k)) / 2.0 < bar) {
+                return -1;
+            }
+        }
 
-        HashSet<Character> inter = new HashSet<>(A);
-        inter.retainAll(B);
-        return (double) inter.size() / union.size();
+        return (left + right) / 2.0;
     }
 
+    /**
+     * Offers dictionary word index to best if its character overlap reaches
+     * commonPercent, giving up as soon as it cannot make the top N. The heap ends up exactly as if
+     * every qualifying word had been offered with its full score: getSimilarity plus its
+     * frequency bonus, if any.
+     */
+    private void consider(String word, CharSignature wordSignature, double commonPercent, int index,
+                          SuggestionHeap best) {
+        if (!dictionary.signatures().overlapAtLeast(wordSignature, index, commonPercent)) return;
+
+        WordArena words = dictionary.words();
+        if (frequencyBonus == null) {
+            double similarity = boundedSimilarity(word, words.chars(), words.start(index), words.length(index), best.bar());
+            if (similarity >= 0) best.offer(similarity, index);
+            return;
+        }
+
+        // A common word may still make it with a lower similarity. The margin keeps rounding in
+        // bar - bonus from dropping a word whose score would exactly tie the bar.
+        double bonus = frequencyBonus[index];
+        double bar = best.bar() - bonus - 1e-9;
+        double similarity = boundedSimilarity(word, words.chars(), words.start(index), words.length(index), bar);
+        if (similarity >= 0) best.offer(similarity + bonus, index);
+    }
+
+    /** Whether a word of length len could still reach best's bar, however well it matched. */
+    private boolean reachable(String word, int len, SuggestionHeap best) {
+        // Matching at every position scores the shorter length, plus at most the largest bonus
+        return Math.min(word.length(), len) + maxFrequencyBonus >= best.bar();
+    }
+
+    /**
+     * Returns up to topN dictionary words within tolerance of word's length whose character
+     * overlap is at least commonPercent, best similarity first. Ties on similarity go to the
+     * word that appears first in the dictionary. With withFrequencies, ranking and ties use
+     * similarity plus the frequency bonus instead.
+     */
     public ArrayList<String> getWordSuggestions(String word, int tolerance, double commonPercent, int topN) {
-        // Step 1: Filter candidates by length and character overlap
-        ArrayList<String> candidates = new ArrayList<>();
-
-        for (String dictWord : dictionary) {
-            // Check length difference
-            int lengthDiff = Math.abs(dictWord.length() - word.length());
-            if (lengthDiff <= tolerance) {
-                // Check common character percentage
-                if (commonPercent(word, dictWord) >= commonPercent) {
-                    candidates.add(dictWord);
-                }
+        long start = metrics == null ? 0 : System.nanoTime();
+        CharSignature wordSignature = CharSignature.of(word);
+        int minLength = Math.max(0, word.length() - tolerance);
+        int maxLength = Math.min(dictionary.maxLength(), word.length() + tolerance);
+
+        int candidateCount = 0;
+        for (int len = minLength; len <= maxLength; len++) candidateCount += dictionary.wordsOfLength(len).length;
+
+        SuggestionHeap best;
+        if (candidateCount >= parallelThreshold) {
+            best = parallelSearch(word, wordSignature, commonPercent, topN, minLength, maxLength, candidateCount);
+        } else {
+            best = new SuggestionHeap(topN);
+            for (int len = minLength; len <= maxLength; len++) {
+                scanRange(word, wordSignature, commonPercent, len, 0, dictionary.wordsOfLength(len).length, best);
             }
         }
 
-        // Step 2: Find top N by similarity WITHOUT any sorting library
+        long scored = best.offered();
         ArrayList<String> topSuggestions = new ArrayList<>();
+        for (int index : best.drainBestFirst()) {
+            topSuggestions.add(dictionary.word(index));
+        }
+        if (metrics != null) {
+            metrics.recordSuggestion(System.nanoTime() - start, candidateCount, scored);
+        }
+        return topSuggestions;
+    }
+
+    /** Offers the qualifying words in wordsOfLength(len)[from, to), through the posting index when it can prune. */
+    private void scanRange(String word, CharSignature wordSignature, double commonPercent,
+                           int len, int from, int to, SuggestionHeap best) {
+        if (commonPercent > 0) {
+            scanIndexed(word, wordSignature, commonPercent, len, from, to, best);
+        } else {
+            scan(word, wordSignature, commonPercent, len, from, to, best);
+        }
+    }
+
+    /** Per-thread scratch for scanIndexed, reused across queries. */
+    private static final class CandidateMarks {
+        boolean[] seen = new boolean[0];  // bucket positions already collected, offset by from
+        int[] candidates = new int[0];    // those offsets, in discovery order
+
+        void ensureCapacity(int size) {
+            if (seen.length < size) {
+                seen = new boolean[size];
+                candidates = new int[size];
+            }
+        }
+    }
+
+    private static final ThreadLocal<CandidateMarks> CANDIDATE_MARKS = ThreadLocal.withInitial(CandidateMarks::new);
+
+    /**
+     * Same result as scan, but visits only words that contain one of the query's rarest characters.
+     * A word sharing fewer than required of the query's a distinct characters has overlap below
+     * commonPercent (the union is at least a), so it must contain one of any a - required + 1 of
+     * them; probing the shortest posting lists finds every such word. Candidates are checked with
+     * the same overlap test as scan. When the probed lists would cover much of the bucket anyway,
+     * the plain scan is cheaper and is used instead.
+     */
+    private void scanIndexed(String word, CharSignature wordSignature, double commonPercent,
+                             int len, int from, int to, SuggestionHeap best) {
+        if (!reachable(word, len, best)) return;
+        int[] bucket = dictionary.wordsOfLength(len);
+        char[] wordChars = wordSignature.toChars();
+        int distinct = wordChars.length;
+        if (distinct == 0) {
+            scan(word, wordSignature, commonPercent, len, from, to, best);
+            return;
+        }
 
-        for (int i = 0; i < topN && !candidates.isEmpty(); i++) {
-            // Find the BEST candidate remaining
-            String bestCandidate = candidates.get(0);
-            double bestSimilarity = getSimilarity(word, bestCandidate);
+        // Smallest shared-character count that can still reach commonPercent
+        int required = 1;
+        while (required <= distinct && (double) required / distinct < commonPercent) required++;
+        if (required > distinct) return;
 
-            for (int j = 1; j < candidates.size(); j++) {
-                String candidate = candidates.get(j);
-                double similarity = getSimilarity(word, candidate);
+        int[][] postings = new int[distinct][];
+        for (int i = 0; i < distinct; i++) postings[i] = postingIndex.postings(len, wordChars[i]);
+        Arrays.sort(postings, Comparator.comparingInt(list -> list.length));
 
-                if (similarity > bestSimilarity) {
-                    bestSimilarity = similarity;
-                    bestCandidate = candidate;
+        int probes = distinct - required + 1;
+        long probed = 0;
+        for (int i = 0; i < probes; i++) probed += postings[i].length;
+        if (probed * INDEXED_SCAN_RATIO >= bucket.length) {
+            scan(word, wordSignature, commonPercent, len, from, to, best);
+            return;
+        }
+
+        CandidateMarks marks = CANDIDATE_MARKS.get();
+        marks.ensureCapacity(to - from);
+        boolean[] seen = marks.seen;
+        int[] candidates = marks.candidates;
+        int candidateCount = 0;
+        for (int i = 0; i < probes; i++) {
+            int[] list = postings[i];
+            for (int p = from == 0 ? 0 : lowerBound(list, from); p < list.length && list[p] < to; p++) {
+                int offset = list[p] - from;
+                if (!seen[offset]) {
+                    seen[offset] = true;
+                    candidates[candidateCount++] = offset;
                 }
             }
+        }
 
-            // Add best to results and remove from candidates
-            topSuggestions.add(bestCandidate);
-            candidates.remove(bestCandidate);
+        for (int c = 0; c < candidateCount; c++) {
+            int offset = candidates[c];
+            seen[offset] = false;
+            int index = bucket[from + offset];
+            consider(word, wordSignature, commonPercent, index, best);
         }
+    }
 
-        return topSuggestions;
+    /** First position in the ascending array whose value is at least key. */
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Filters wordsOfLength(len)[from, to) by character overlap and offers each survivor that can make the top N. */
+    private void scan(String word, CharSignature wordSignature, double commonPercent,
+                      int len, int from, int to, SuggestionHeap best) {
+        if (!reachable(word, len, best)) return;
+        int[] bucket = dictionary.wordsOfLength(len);
+        for (int i = from; i < to; i++) {
+            int index = bucket[i];
+            consider(word, wordSignature, commonPercent, index, best);
+        }
+    }
+
+    /**
+     * Splits the buckets into chunks, finds each chunk's top N on the common pool and merges them.
+     * The heap ranking is a total order on (similarity, index), so the merge matches the sequential result.
+     */
+    private SuggestionHeap parallelSearch(String word, CharSignature wordSignature, double commonPercent,
+                                          int topN, int minLength, int maxLength, int candidateCount) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(1024, candidateCount / (parallelism * 4));
+
+        // Each chunk is {length, from, to} within dictionary.wordsOfLength(length)
+        List<int[]> chunks = new ArrayList<>();
+        for (int len = minLength; len <= maxLength; len++) {
+            int bucketSize = dictionary.wordsOfLength(len).length;
+            for (int from = 0; from < bucketSize; from += chunkSize) {
+                chunks.add(new int[] {len, from, Math.min(from + chunkSize, bucketSize)});
+            }
+        }
+
+        return chunks.parallelStream()
+                .map(chunk -> {
+                    SuggestionHeap partial = new SuggestionHeap(topN);
+                    scanRange(word, wordSignature, commonPercent, chunk[0], chunk[1], chunk[2], partial);
+                    return partial;
+                })
+                .reduce((a, b) -> {
+                    a.addAll(b);
+                    return a;
+                })
+                .orElseGet(() -> new SuggestionHeap(topN));
+    }
+
+    /**
+     * A copy whose getEditDistanceSuggestions can search up to maxDistance edits, with the
+     * deletion index built now, on the calling thread. For engDictionary.txt and a distance of
+     * 2 that takes a few hundred milliseconds and about 10 MB.
+     */
+    public WordRecommender withEditDistanceIndex(int maxDistance) {
+        return new WordRecommender(this, parallelThreshold, metrics, frequencyBonus,
+                DeletionIndex.build(dictionary, maxDistance));
+    }
+
+    /**
+     * Alternative engine: returns up to topN dictionary words within maxDistance edits of word
+     * (insert, delete, substitute, or swap adjacent characters), closest first, then by
+     * getSimilarity, ties in dictionary order. Looks candidates up in the deletion index instead of scanning the
+     * dictionary, so it needs a recommender from withEditDistanceIndex(n) with n >= maxDistance.
+     */
+    public ArrayList<String> getEditDistanceSuggestions(String word, int maxDistance, int topN) {
+        if (deletionIndex == null) {
+            throw new IllegalStateException("No edit distance index: use a recommender from withEditDistanceIndex");
+        }
+        long start = metrics == null ? 0 : System.nanoTime();
+        SuggestionHeap best = new SuggestionHeap(topN);
+        int candidates = deletionIndex.search(word, maxDistance, best);
+
+        ArrayList<String> suggestions = new ArrayList<>();
+        for (int index : best.drainBestFirst()) {
+            suggestions.add(dictionary.word(index));
+        }
+        if (metrics != null) {
+            metrics.recordSuggestion(System.nanoTime() - start, candidates, best.offered());
+        }
+        return suggestions;
     }
-}
\ No newline at end of file
+}
@@ -1,4 +1,9 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
 
 public class WordRecommenderTest {
     public static void main(String[] args) {
@@ -14,6 +19,13 @@ public class WordRecommenderTest {
         testCommonPercent();
         testGetWordSuggestions1();
         testGetWordSuggestions2();
+        testSuggestionTieBreak();
+        testFrequencyRanking();
+        testParallelSuggestions();
+        testBaselineRanking();
+        testEditDistanceSuggestions();
+        testEditDistanceBaseline();
+        testSuggestionCache();
         System.out.println("All WordRecommender.java tests finished.");
     }
 
@@ -104,4 +116,288 @@ public class WordRecommenderTest {
             System.out.println("testGetWordSuggestions2: FAILED, more than 2 suggestions returned.");
         }
     }
+
+    // Test that equally similar suggestions keep dictionary order ("boat" comes before "goat" in the file)
+    private void testSuggestionTieBreak() {
+        System.out.println("\n testSuggestionTieBreak");
+        WordRecommender wr = new WordRecommender("test_dictionary.txt");
+
+        ArrayList<String> suggestions = wr.getWordSuggestions("coat", 2, 0.5, 3);
+        System.out.println("Top 3 suggestions for 'coat': " + suggestions);
+        if (suggestions.toString().equals("[coat, boat, goat]")) {
+            System.out.println("testSuggestionTieBreak: PASSED");
+        } else {
+            System.out.println("testSuggestionTieBreak: FAILED, expected [coat, boat, goat]");
+        }
+    }
+
+    // Test that word frequencies break similarity ties, or outweigh similarity with a large weight
+    private void testFrequencyRanking() {
+        System.out.println("\n testFrequencyRanking");
+        String frequencyFile = "test_frequencies.txt";
+        try {
+            Dictionary dictionary = Dictionary.load("test_dictionary.txt");
+            try (FileWriter writer = new FileWriter(frequencyFile)) {
+                writer.write("# word count\nGoat 60\ngoat 40\n\nboat 5\ncat 1000\nzebra 9\n");
+            }
+            WordFrequencies frequencies = WordFrequencies.load(frequencyFile, dictionary);
+            WordRecommender wr = new WordRecommender(dictionary);
+
+            ArrayList<String> plain = wr.getWordSuggestions("coatt", 2, 0.5, 4);
+            ArrayList<String> tieBreak = wr.withFrequencies(frequencies, WordRecommender.TIE_BREAK_WEIGHT)
+                    .getWordSuggestions("coatt", 2, 0.5, 4);
+            ArrayList<String> blended = wr.withFrequencies(frequencies, 3).getWordSuggestions("coatt", 2, 0.5, 4);
+            System.out.println("Plain: " + plain + ", tie-break: " + tieBreak + ", blended: " + blended);
+            boolean rejected = true;
+            for (double weight : new double[] {-1, Double.POSITIVE_INFINITY, Double.NaN}) {
+                try {
+                    wr.withFrequencies(frequencies, weight);
+                    rejected = false;
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+
+            boolean passed = rejected && frequencies.count(4) == 100 && frequencies.count(0) == 0
+                    && plain.toString().equals("[coat, boat, goat, cat]")
+                    && tieBreak.toString().equals("[coat, goat, boat, cat]")
+                    && blended.toString().equals("[goat, cat, boat, coat]");
+            System.out.println(passed ? "testFrequencyRanking: PASSED" : "testFrequencyRanking: FAILED");
+        } catch (IOException e) {
+            System.out.println("testFrequencyRanking: FAILED, " + e.getMessage());
+        } finally {
+            new File(frequencyFile).delete();
+        }
+    }
+
+    // Test that the parallel search returns exactly the same ordered list as the sequential one
+    private void testParallelSuggestions() {
+        System.out.println("\n testParallelSuggestions");
+        WordRecommender sequential = new WordRecommender("test_dictionary.txt");
+        // Always split, even for the tiny test dictionary
+        WordRecommender parallel = new WordRecommender("test_dictionary.txt").withParallelThreshold(0);
+
+        ArrayList<String> expected = sequential.getWordSuggestions("cot", 2, 0.0, 10);
+        ArrayList<String> actual = parallel.getWordSuggestions("cot", 2, 0.0, 10);
+        System.out.println("Sequential: " + expected + ", parallel: " + actual);
+        if (expected.equals(actual)) {
+            System.out.println("testParallelSuggestions: PASSED");
+        } else {
+            System.out.println("testParallelSuggestions: FAILED, parallel results differ");
+        }
+    }
+
+    // Test that the indexed and pruned search, sequential and parallel, ranks exactly like the
+    // original brute-force scan across words, tolerances, overlap thresholds and result sizes
+    private void testBaselineRanking() {
+        System.out.println("\n testBaselineRanking");
+        Dictionary dictionary;
+        try {
+            // The test words plus single-letter variants, for plenty of ties and shared characters
+            ArrayList<String> words = new ArrayList<>();
+            Dictionary testWords = Dictionary.load("test_dictionary.txt");
+            for (int w = 0; w < testWords.size(); w++) {
+                String word = testWords.word(w);
+                words.add(word);
+                for (int i = 0; i < word.length(); i++) {
+                    words.add(word.substring(0, i) + word.substring(i + 1));
+                    words.add(word.substring(0, i) + 'o' + word.substring(i + 1));
+                }
+            }
+            dictionary = Dictionary.fromWords(words);
+        } catch (IOException e) {
+            System.out.println("testBaselineRanking: FAILED, " + e.getMessage());
+            return;
+        }
+        WordRecommender sequential = new WordRecommender(dictionary);
+        WordRecommender parallel = new WordRecommender(dictionary).withParallelThreshold(0);
+
+        String[] queries = {"cot", "aple", "catt", "dgo", "goatt", "bat", "a", "zzz", ""};
+        int compared = 0;
+        int mismatches = 0;
+        for (String query : queries) {
+            for (int tolerance = 0; tolerance <= 3; tolerance++) {
+                for (double commonPercent : new double[] {0.0, 0.3, 0.5, 0.75, 1.0}) {
+                    for (int topN : new int[] {1, 3, 10}) {
+                        ArrayList<String> expected = baselineSuggestions(sequential, dictionary, query, tolerance,
+                                commonPercent, topN);
+                        for (WordRecommender wr : new WordRecommender[] {sequential, parallel}) {
+                            compared++;
+                            ArrayList<String> actual = wr.getWordSuggestions(query, tolerance, commonPercent, topN);
+                            if (!actual.equals(expected)) {
+                                mismatches++;
+                                System.out.println("'" + query + "' tol=" + tolerance + " cp=" + commonPercent
+                                        + " top=" + topN + ": expected " + expected + ", got " + actual);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println(compared + " searches compared, " + mismatches + " differ");
+        System.out.println(mismatches == 0 ? "testBaselineRanking: PASSED" : "testBaselineRanking: FAILED");
+    }
+
+    // The original search: filter by length and character overlap, then repeatedly take the most
+    // similar remaining candidate, the earliest one on ties
+    private ArrayList<String> baselineSuggestions(WordRecommender wr, Dictionary dictionary, String word,
+                                                  int tolerance, double commonPercent, int topN) {
+        ArrayList<String> candidates = new ArrayList<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            String dictWord = dictionary.word(i);
+            if (Math.abs(dictWord.length() - word.length()) <= tolerance
+                    && overlap(word, dictWord) >= commonPercent) {
+                candidates.add(dictWord);
+            }
+        }
+
+        ArrayList<String> top = new ArrayList<>();
+        while (top.size() < topN && !candidates.isEmpty()) {
+            int best = 0;
+            for (int j = 1; j < candidates.size(); j++) {
+                if (wr.getSimilarity(word, candidates.get(j)) > wr.getSimilarity(word, candidates.get(best))) best = j;
+            }
+            top.add(candidates.remove(best));
+        }
+        return top;
+    }
+
+    private double overlap(String a, String b) {
+        HashSet<Character> union = new HashSet<>();
+        HashSet<Character> shared = new HashSet<>();
+        for (char c : a.toCharArray()) union.add(c);
+        for (char c : b.toCharArray()) {
+            if (a.indexOf(c) >= 0) shared.add(c);
+            union.add(c);
+        }
+        return union.isEmpty() ? 1.0 : (double) shared.size() / union.size();
+    }
+
+    // Test the edit-distance engine: words within one edit of "aple", closest first, then most similar,
+    // and only on a recommender whose index covers the distance
+    private void testEditDistanceSuggestions() {
+        System.out.println("\n testEditDistanceSuggestions");
+        WordRecommender plain = new WordRecommender("test_dictionary.txt");
+        WordRecommender wr = plain.withEditDistanceIndex(1);
+
+        ArrayList<String> suggestions = wr.getEditDistanceSuggestions("aple", 1, 5);
+        ArrayList<String> swapped = wr.getEditDistanceSuggestions("caot", 1, 5); // Adjacent swap costs one edit
+        System.out.println("Within 1 edit of 'aple': " + suggestions + ", of 'caot': " + swapped);
+        boolean rejected = rejects(() -> plain.getEditDistanceSuggestions("aple", 1, 5))
+                && rejects(() -> wr.getEditDistanceSuggestions("aple", 2, 5));
+        if (suggestions.toString().equals("[apple, ape]") && swapped.toString().equals("[coat, cat]") && rejected) {
+            System.out.println("testEditDistanceSuggestions: PASSED");
+        } else {
+            System.out.println("testEditDistanceSuggestions: FAILED, expected [apple, ape] and [coat, cat]");
+        }
+    }
+
+    // Test that the deletion index finds exactly what comparing the query with every word finds,
+    // long words (beyond the indexed prefix) and repeated words included
+    private void testEditDistanceBaseline() {
+        System.out.println("\n testEditDistanceBaseline");
+        Random random = new Random(5);
+        ArrayList<String> words = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int c = 0; c < length; c++) word.append((char) ('a' + random.nextInt(6)));
+            words.add(word.toString());
+        }
+        words.add(words.get(7));
+        Dictionary dictionary = Dictionary.fromWords(words);
+        WordRecommender wr = new WordRecommender(dictionary).withEditDistanceIndex(2);
+
+        int compared = 0;
+        int mismatches = 0;
+        for (int q = 0; q < 300; q++) {
+            // Dictionary words with up to two random edits, and some unrelated strings
+            StringBuilder query = new StringBuilder(words.get(random.nextInt(words.size())));
+            for (int e = random.nextInt(3); e > 0 && query.length() > 0; e--) {
+                int at = random.nextInt(query.length());
+                if (random.nextBoolean()) {
+                    query.deleteCharAt(at);
+                } else {
+                    query.insert(at, (char) ('a' + random.nextInt(7)));
+                }
+            }
+            if (q % 10 == 0) query.reverse();
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                ArrayList<String> expected = baselineEditSuggestions(wr, dictionary, query.toString(), maxDistance,
+                        1000);
+                ArrayList<String> actual = wr.getEditDistanceSuggestions(query.toString(), maxDistance, 1000);
+                compared++;
+                if (!actual.equals(expected)) {
+                    mismatches++;
+                    System.out.println("'" + query + "' within " + maxDistance + ": expected " + expected + ", got " + actual);
+                }
+            }
+        }
+        System.out.println(compared + " searches compared, " + mismatches + " differ");
+        System.out.println(mismatches == 0 ? "testEditDistanceBaseline: PASSED" : "testEditDistanceBaseline: FAILED");
+    }
+
+    // Every distinct word within maxDistance edits of word, closest first, then most similar, then
+    // in dictionary order
+    private ArrayList<String> baselineEditSuggestions(WordRecommender wr, Dictionary dictionary, String word,
+                                                      int maxDistance, int topN) {
+        DeletionIndex.Scratch scratch = new DeletionIndex.Scratch();
+        char[] query = word.toCharArray();
+        ArrayList<String> matches = new ArrayList<>();
+        ArrayList<Integer> distances = new ArrayList<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            char[] candidate = dictionary.word(i).toCharArray();
+            int d = DeletionIndex.distance(query, 0, query.length, candidate, 0, candidate.length,
+                    Integer.MAX_VALUE, scratch);
+            if (d <= maxDistance && !matches.contains(dictionary.word(i))) {
+                matches.add(dictionary.word(i));
+                distances.add(d);
+            }
+        }
+
+        ArrayList<String> top = new ArrayList<>();
+        while (top.size() < topN && !matches.isEmpty()) {
+            int best = 0;
+            for (int j = 1; j < matches.size(); j++) {
+                int byDistance = Integer.compare(distances.get(j), distances.get(best));
+                if (byDistance < 0 || (byDistance == 0
+                        && wr.getSimilarity(word, matches.get(j)) > wr.getSimilarity(word, matches.get(best)))) {
+                    best = j;
+                }
+            }
+            top.add(matches.remove(best));
+            distances.remove(best);
+        }
+        return top;
+    }
+
+    private boolean rejects(Runnable search) {
+        try {
+            search.run();
+            return false;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    // Test that SuggestionCache returns the recommender's results, counts hits and evicts least recently used
+    private void testSuggestionCache() {
+        System.out.println("\n testSuggestionCache");
+        WordRecommender wr = new WordRecommender("test_dictionary.txt");
+        SuggestionCache cache = new SuggestionCache(wr, 2);
+
+        ArrayList<String> first = cache.getWordSuggestions("boat", 2, 0.5, 2);
+        ArrayList<String> second = cache.getWordSuggestions("boat", 2, 0.5, 2); // hit
+        cache.getWordSuggestions("boat", 2, 0.5, 3);                           // different topN: miss
+        cache.getWordSuggestions("cot", 2, 0.5, 2);                            // miss, evicts "boat"/topN 2
+        cache.getWordSuggestions("boat", 2, 0.5, 2);                           // miss again
+        System.out.println("hits = " + cache.hitCount() + ", misses = " + cache.missCount() + ", size = " + cache.size());
+
+        boolean sameResults = first.equals(wr.getWordSuggestions("boat", 2, 0.5, 2)) && first.equals(second);
+        if (sameResults && cache.hitCount() == 1 && cache.missCount() == 4 && cache.size() == 2) {
+            System.out.println("testSuggestionCache: PASSED");
+        } else {
+            System.out.println("testSuggestionCache: FAILED");
+        }
+    }
 }